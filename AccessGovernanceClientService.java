@@ -1,158 +1,482 @@
 package com.hackathon.accessguardian.mcp.client.service;
 
-import com.example.accessgovernance.service.model.AccessRecommendation;
-import com.example.accessgovernance.service.model.AnomalyExplanation;
-import com.example.accessgovernance.service.model.PolicyDriftExplanation;
-import lombok.RequiredArgsConstructor;
+import com.hackathon.accessguardian.mcp.client.service.model.AccessRecommendation;
+import com.hackathon.accessguardian.mcp.client.service.model.AnomalyExplanation;
+import com.hackathon.accessguardian.mcp.client.service.model.PolicyDriftExplanation;
+import com.hackathon.accessguardian.mcp.client.service.model.JoinerRequest;
+import com.hackathon.accessguardian.mcp.client.service.anomaly.AnomalyPreScreenService;
+import com.hackathon.accessguardian.mcp.client.service.anomaly.AnomalyScreen;
+import com.hackathon.accessguardian.mcp.client.service.baseline.PeerBaseline;
+import com.hackathon.accessguardian.mcp.client.service.baseline.PeerBaselineService;
+import com.hackathon.accessguardian.mcp.client.service.cache.ResponseCache;
+import com.hackathon.accessguardian.mcp.client.service.drift.DriftDelta;
+import com.hackathon.accessguardian.mcp.client.service.drift.GroupDriftSnapshot;
+import com.hackathon.accessguardian.mcp.client.service.drift.PolicyDriftTracker;
+import com.hackathon.accessguardian.mcp.client.service.cache.ResponseCacheKey;
+import com.hackathon.accessguardian.mcp.client.service.cache.ToolResultMemoizer;
+import com.hackathon.accessguardian.mcp.client.service.execution.DownstreamConcurrencyLimiter;
+import com.hackathon.accessguardian.mcp.client.service.execution.RequestCancellation;
+import com.hackathon.accessguardian.mcp.client.service.memory.ConversationMemory;
+import com.hackathon.accessguardian.mcp.client.service.metrics.LlmMetrics;
+import com.hackathon.accessguardian.mcp.client.service.metrics.LlmRequestMetrics;
+import com.hackathon.accessguardian.mcp.client.service.metrics.TokenUsage;
+import com.hackathon.accessguardian.mcp.client.service.prompt.CompiledPrompt;
+import com.hackathon.accessguardian.mcp.client.service.prompt.PromptRegistry;
+import com.hackathon.accessguardian.mcp.client.service.prompt.StreamingJsonArrayParser;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.messages.SystemMessage;
-import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.mcp.client.McpClient;
-import org.springframework.ai.parser.BeanOutputParser;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux; // Import Flux for streaming
+import reactor.core.publisher.Mono;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AccessGovernanceClientService {
+    // Upper bound on tokens requested from the model stream at a time
+    private static final int STREAM_PREFETCH = 256;
+    // For prompts whose context was fetched up front and that must not trigger tool calls
+    private static final ToolCallback[] NO_TOOLS = new ToolCallback[0];
     private final ChatClient chatClient;
-    private final McpClient mcpClient; // Injected MCP Client
-    // Constructor to ensure ChatClient is built with tools
-    public AccessGovernanceClientService(ChatClient.Builder chatClientBuilder, McpClient mcpClient) {
-        this.chatClient = chatClientBuilder
-                .defaultTools(mcpClient.getAvailableTools()) // MCP Client discovers and provides tools
-                .build();
-        this.mcpClient = mcpClient;
+    private final PromptRegistry prompts;
+    private final McpToolCatalog toolCatalog;
+    private final ResponseCache responseCache;
+    private final DownstreamConcurrencyLimiter concurrencyLimiter;
+    private final ConversationMemory conversationMemory;
+    private final LlmMetrics llmMetrics;
+    private final PeerBaselineService peerBaselineService;
+    private final boolean baselineEnabled;
+    private final AnomalyPreScreenService anomalyPreScreen;
+    private final boolean preScreenEnabled;
+    private final PolicyDriftTracker policyDriftTracker;
+    private final boolean driftTrackingEnabled;
+    private final int driftMaxListedMembers;
+    private final Duration llmTimeout;
+    // Tools are attached per call from the catalog snapshot, so a tools/list_changed is picked up without a restart
+    public AccessGovernanceClientService(ChatClient.Builder chatClientBuilder, PromptRegistry prompts, McpToolCatalog toolCatalog,
+                                         ResponseCache responseCache, DownstreamConcurrencyLimiter concurrencyLimiter,
+                                         ConversationMemory conversationMemory, LlmMetrics llmMetrics,
+                                         PeerBaselineService peerBaselineService,
+                                         @Value("${access-governance.recommendation.baseline-enabled:true}") boolean baselineEnabled,
+                                         AnomalyPreScreenService anomalyPreScreen,
+                                         @Value("${access-governance.anomaly.pre-screen-enabled:true}") boolean preScreenEnabled,
+                                         PolicyDriftTracker policyDriftTracker,
+                                         @Value("${access-governance.drift.enabled:true}") boolean driftTrackingEnabled,
+                                         @Value("${access-governance.drift.max-listed-members:50}") int driftMaxListedMembers,
+                                         @Value("${access-governance.llm.timeout:PT2M}") Duration llmTimeout) {
+        this.chatClient = chatClientBuilder.build();
+        this.prompts = prompts;
+        this.toolCatalog = toolCatalog;
+        this.responseCache = responseCache;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.conversationMemory = conversationMemory;
+        this.llmMetrics = llmMetrics;
+        this.peerBaselineService = peerBaselineService;
+        this.baselineEnabled = baselineEnabled;
+        this.anomalyPreScreen = anomalyPreScreen;
+        this.preScreenEnabled = preScreenEnabled;
+        this.policyDriftTracker = policyDriftTracker;
+        this.driftTrackingEnabled = driftTrackingEnabled;
+        this.driftMaxListedMembers = driftMaxListedMembers;
+        this.llmTimeout = llmTimeout;
     }
     /**
      * Recommends group memberships for a new joiner or for a role change.
-     * Uses Get_Employee_Context_Graph for inferential reasoning.
+     * The candidate groups are ranked locally from the employee's context graph (see {@link PeerBaselineService}) and the
+     * model only writes justifications for that shortlist, without tools. If no baseline can be computed the model
+     * does the whole analysis with Get_Employee_Context_Graph as before.
+     * Nothing is sent to the model until the returned Mono is subscribed, and cancelling it cancels the LLM stream.
      */
-    public AccessRecommendation recommendAccess(String employeeId, String employeeName, String department, String role, String lineManagerId) {
+    public Mono<AccessRecommendation> recommendAccess(String employeeId, String employeeName, String department, String role, String lineManagerId) {
         log.info("Requesting access recommendation for new joiner: {} ({})", employeeName, employeeId);
-        BeanOutputParser<AccessRecommendation> parser = new BeanOutputParser<>(AccessRecommendation.class);
-        String format = parser.getFormat();
-// Advanced Prompt Engineering for inferential task (Tree-of-Thoughts like)
-        SystemMessage systemMessage = new SystemMessage("""
-You are an expert Access Governance Advisor. Your goal is to provide precise and justified group membership recommendations,
-strictly adhering to the principle of least privilege. You must use the provided tools to gather all necessary context
-about the employee, their line manager, direct reports, and peers.
-Follow these steps for your reasoning:
-1. Use the 'Get_Employee_Context_Graph' tool for the new joiner's employee ID to understand their organizational context.
-2. Analyze the 'employeeDetails', 'lineManagerDetails', 'directReports', and 'peerEmployeesInSameRoleAndDept' from the context graph.
-3. Pay close attention to the 'currentGroupMemberships' of the line manager and peers.
-4. Based on the new joiner's department, role, and the access patterns of their manager and peers,
-suggest a minimal set of group memberships.
-5. For each recommended group, provide a clear justification based on the employee's role, department, or peer/manager access.
-6. If an employee already has access that seems excessive or unusual compared to peers, highlight it for review.
-7. Your final output MUST be a JSON object conforming to the provided schema. Do NOT include any conversational text outside the JSON.
-{format}
-""");
-        UserMessage userMessage = new UserMessage(Map.of(
-                "employeeId", employeeId,
-                "employeeName", employeeName,
-                "department", department,
-                "role", role,
-                "lineManagerId", lineManagerId
-        ), """
-I need group membership recommendations for a new employee.
-Employee ID: {employeeId}
-Name: {employeeName}
-Department: {department}
-Role: {role}
-Line Manager ID: {lineManagerId}
-""");
-        Prompt prompt = new Prompt(List.of(systemMessage, userMessage));
-        String response = chatClient.prompt(prompt).call().content();
-        return parser.parse(response);
+        return cached(recommendationKey(employeeId, employeeName, department, role, lineManagerId),
+                () -> prepareRecommendation(employeeId, employeeName, department, role, lineManagerId, Mono.empty())
+                        .flatMap(this::complete));
+    }
+    /**
+     * Fast mode: the ranked peer baseline with rule-based justifications and no LLM call at all.
+     */
+    public Mono<AccessRecommendation> recommendAccessFast(String employeeId, String employeeName) {
+        log.info("Computing baseline-only access recommendation for new joiner: {} ({})", employeeName, employeeId);
+        return peerBaselineService.baseline(employeeId).map(baseline -> baseline.toRecommendation(employeeName));
+    }
+    /**
+     * Same as {@link #recommendAccess(String, String, String, String, String)}, sharing its cache entries, for bulk runs.
+     * {@code lineManagerContext} is a context graph of the line manager shared by joiners with the same manager; it is
+     * only subscribed if the baseline is unavailable and the model has to do the analysis itself.
+     */
+    public Mono<AccessRecommendation> recommendAccess(JoinerRequest joiner, Mono<String> lineManagerContext) {
+        return cached(recommendationKey(joiner.getEmployeeId(), joiner.getEmployeeName(), joiner.getDepartment(), joiner.getRole(),
+                        joiner.getLineManagerId()),
+                () -> prepareRecommendation(joiner.getEmployeeId(), joiner.getEmployeeName(), joiner.getDepartment(),
+                        joiner.getRole(), joiner.getLineManagerId(), lineManagerContext)
+                        .flatMap(this::complete));
+    }
+    // One key for the blocking, bulk and streaming variants, so they share answers
+    private ResponseCacheKey recommendationKey(String employeeId, String employeeName, String department, String role, String lineManagerId) {
+        CompiledPrompt<AccessRecommendation> compiled = baselineEnabled ? prompts.recommendAccessFromBaseline() : prompts.recommendAccess();
+        return compiled.cacheKey(toolCatalog.version(), employeeId, employeeName, department, role, lineManagerId);
+    }
+    /**
+     * The model call for a recommendation: justify the peer baseline's shortlist without tools, or, when the baseline
+     * is disabled, fails or finds nothing, the tool-driven analysis.
+     */
+    private Mono<PreparedCall<AccessRecommendation>> prepareRecommendation(String employeeId, String employeeName, String department,
+                                                                          String role, String lineManagerId,
+                                                                          Mono<String> lineManagerContext) {
+        Mono<PreparedCall<AccessRecommendation>> toolDriven = Mono.defer(() -> lineManagerContext.defaultIfEmpty("")
+                .map(context -> toolDrivenRecommendation(employeeId, employeeName, department, role, lineManagerId, context)));
+        if (!baselineEnabled) {
+            return toolDriven;
+        }
+        return peerBaselineService.baseline(employeeId)
+                .onErrorResume(e -> {
+                    log.warn("Peer baseline for {} failed, falling back to the tool-driven recommendation: {}", employeeId, e.getMessage());
+                    return Mono.empty();
+                })
+                .filter(baseline -> !baseline.isEmpty())
+                .map(baseline -> baselineRecommendation(baseline, employeeName, department, role, lineManagerId))
+                .switchIfEmpty(toolDriven);
+    }
+    private PreparedCall<AccessRecommendation> baselineRecommendation(PeerBaseline baseline, String employeeName, String department,
+                                                                      String role, String lineManagerId) {
+        CompiledPrompt<AccessRecommendation> compiled = prompts.recommendAccessFromBaseline();
+        Map<String, Object> variables = joinerVariables(baseline.employeeId(), employeeName, department, role, lineManagerId);
+        variables.put("shortlist", baseline.toPromptText());
+        return PreparedCall.withoutTools(compiled, compiled.bind(variables));
+    }
+    private PreparedCall<AccessRecommendation> toolDrivenRecommendation(String employeeId, String employeeName, String department,
+                                                                        String role, String lineManagerId, String lineManagerContext) {
+        Map<String, Object> variables = joinerVariables(employeeId, employeeName, department, role, lineManagerId);
+        CompiledPrompt<AccessRecommendation> compiled = prompts.recommendAccess();
+        if (lineManagerContext != null && !lineManagerContext.isBlank()) {
+            compiled = prompts.recommendAccessWithManagerContext();
+            variables.put("lineManagerContext", lineManagerContext);
+        }
+        return PreparedCall.withTools(compiled, compiled.bind(variables));
+    }
+    // Map.of rejects nulls; a joiner without a line manager is valid, other gaps are rejected by the callers
+    private static Map<String, Object> joinerVariables(String employeeId, String employeeName, String department, String role,
+                                                       String lineManagerId) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("employeeId", employeeId != null ? employeeId : "");
+        variables.put("employeeName", employeeName != null ? employeeName : "");
+        variables.put("department", department != null ? department : "");
+        variables.put("role", role != null ? role : "");
+        variables.put("lineManagerId", lineManagerId != null && !lineManagerId.isBlank() ? lineManagerId : "none");
+        return variables;
     }
     /**
      * Explains a detected access anomaly in plain language.
-     * Uses Detect_Access_Anomalies and Get_Employee_Details.
+     * Detect_Access_Anomalies is called directly first (see {@link AnomalyPreScreenService}): without findings the
+     * answer is {@link AnomalyExplanation#noAnomalies} and no model is involved; otherwise only the findings and
+     * Get_Employee_Details are sent to the model, without tools. If the pre-screen fails the model runs the tools itself.
      */
-    public AnomalyExplanation explainAnomaly(String employeeId) {
+    public Mono<AnomalyExplanation> explainAnomaly(String employeeId) {
         log.info("Requesting anomaly explanation for employee: {}", employeeId);
-        BeanOutputParser<AnomalyExplanation> parser = new BeanOutputParser<>(AnomalyExplanation.class);
-        String format = parser.getFormat();
-        SystemMessage systemMessage = new SystemMessage("""
-You are an AI Security Analyst. Your task is to explain detected access anomalies in clear, concise, and non-technical language.
-You must use the 'Detect_Access_Anomalies' tool to get the anomaly details and 'Get_Employee_Details' for employee context.
-Follow these steps for your reasoning:
-1. Use the 'Detect_Access_Anomalies' tool for the given employee ID.
-2. If anomalies are found, use 'Get_Employee_Details' to get the employee's basic information.
-3. For each anomaly, provide a plain language explanation of why it's unusual or risky.
-4. List the key contributing factors that led to the anomaly detection.
-5. Suggest a clear, actionable next step for IT or HR.
-6. Your final output MUST be a JSON object conforming to the provided schema. Do NOT include any conversational text outside the JSON.
-{format}
-""");
-        UserMessage userMessage = new UserMessage(Map.of("employeeId", employeeId),
-                "Explain any access anomalies detected for employee ID: {employeeId}.");
-        Prompt prompt = new Prompt(List.of(systemMessage, userMessage));
-        String response = chatClient.prompt(prompt).call().content();
-        return parser.parse(response);
+        if (!preScreenEnabled) {
+            ResponseCacheKey key = prompts.explainAnomaly().cacheKey(toolCatalog.version(), employeeId);
+            return cached(key, () -> doExplainAnomaly(employeeId));
+        }
+        ResponseCacheKey key = prompts.explainAnomalyFindings().cacheKey(toolCatalog.version(), employeeId);
+        return cached(key, () -> anomalyPreScreen.screen(employeeId)
+                .onErrorResume(e -> {
+                    log.warn("Anomaly pre-screen for {} failed, falling back to the tool-driven explanation: {}", employeeId, e.getMessage());
+                    return Mono.empty();
+                })
+                .flatMap(this::explainScreened)
+                .switchIfEmpty(Mono.defer(() -> doExplainAnomaly(employeeId))));
+    }
+    /**
+     * Same as {@link #explainAnomaly(String)} for an employee that was already screened, used by department scans.
+     */
+    public Mono<AnomalyExplanation> explainAnomaly(String employeeId, AnomalyScreen screen) {
+        ResponseCacheKey key = prompts.explainAnomalyFindings().cacheKey(toolCatalog.version(), employeeId);
+        return cached(key, () -> explainScreened(screen));
+    }
+    private Mono<AnomalyExplanation> explainScreened(AnomalyScreen screen) {
+        if (screen.isClean()) {
+            return Mono.just(AnomalyExplanation.noAnomalies(screen.employeeId()));
+        }
+        return screenedAnomalyCall(screen).flatMap(this::complete);
+    }
+    private Mono<PreparedCall<AnomalyExplanation>> screenedAnomalyCall(AnomalyScreen screen) {
+        CompiledPrompt<AnomalyExplanation> compiled = prompts.explainAnomalyFindings();
+        return anomalyPreScreen.employeeDetails(screen.employeeId())
+                // The findings alone are enough for an explanation, the details only add the name and role
+                .onErrorReturn("unavailable")
+                .map(details -> PreparedCall.withoutTools(compiled, compiled.bind(Map.of(
+                        "employeeId", screen.employeeId(),
+                        "findings", screen.findings().toString(),
+                        "employeeDetails", details
+                ))));
+    }
+    private Mono<AnomalyExplanation> doExplainAnomaly(String employeeId) {
+        return complete(toolDrivenAnomalyCall(employeeId));
+    }
+    private PreparedCall<AnomalyExplanation> toolDrivenAnomalyCall(String employeeId) {
+        CompiledPrompt<AnomalyExplanation> compiled = prompts.explainAnomaly();
+        return PreparedCall.withTools(compiled, compiled.bind(Map.of("employeeId", employeeId)));
     }
     /**
      * Explains policy drift for a group in plain language.
-     * Uses Detect_Policy_Drift and Get_Group_Details.
+     * The drift is tracked in local snapshots (see {@link PolicyDriftTracker}) and brought up to date incrementally;
+     * the model gets counts, capped samples and the change since the previous check, so its input does not grow with
+     * the group, and is not asked again while the drift is unchanged. If tracking fails the model runs
+     * Detect_Policy_Drift and Get_Group_Details itself.
      */
-    public PolicyDriftExplanation explainPolicyDrift(String groupId, LocalDate baselineDate) {
+    public Mono<PolicyDriftExplanation> explainPolicyDrift(String groupId, LocalDate baselineDate) {
         log.info("Requesting policy drift explanation for group: {} since {}", groupId, baselineDate);
-        BeanOutputParser<PolicyDriftExplanation> parser = new BeanOutputParser<>(PolicyDriftExplanation.class);
-        String format = parser.getFormat();
-        SystemMessage systemMessage = new SystemMessage("""
-You are an AI Compliance Oﬃcer. Your role is to analyze and explain policy drift for access groups.
-You must use the 'Detect_Policy_Drift' tool to get the drift report and 'Get_Group_Details' for group context.
-Follow these steps for your reasoning:
-1. Use the 'Detect_Policy_Drift' tool for the given group ID and baseline date.
-2. Use 'Get_Group_Details' to understand the group's purpose.
-3. Explain in plain language what "policy drift" means for this specific group.
-4. Clearly list who was added and who was removed since the baseline date.
-5. Provide a brief assessment of the potential impact or risk of this drift.
-6. Your final output MUST be a JSON object conforming to the provided schema. Do NOT include any conversational text outside the JSON.
-{format}
-""");
-        UserMessage userMessage = new UserMessage(Map.of(
+        ResponseCacheKey key = prompts.explainPolicyDrift().cacheKey(toolCatalog.version(), groupId, baselineDate);
+        if (!driftTrackingEnabled) {
+            return cached(key, () -> doExplainPolicyDrift(groupId, baselineDate));
+        }
+        return policyDriftTracker.refresh(groupId, baselineDate)
+                .onErrorResume(e -> {
+                    log.warn("Drift tracking for group {} failed, falling back to the tool-driven explanation: {}", groupId, e.getMessage());
+                    return Mono.empty();
+                })
+                .flatMap(this::explainPolicyDrift)
+                .switchIfEmpty(Mono.defer(() -> cached(key, () -> doExplainPolicyDrift(groupId, baselineDate))));
+    }
+    /**
+     * Explains a drift the caller has already brought up to date, e.g. in the sweep's screening stage,
+     * without asking the tracker or the server again.
+     */
+    public Mono<PolicyDriftExplanation> explainPolicyDrift(DriftDelta delta) {
+        CompiledPrompt<PolicyDriftExplanation> compiled = prompts.explainPolicyDriftDelta();
+        GroupDriftSnapshot snapshot = delta.snapshot();
+        // An unchanged snapshot inherits its predecessor's explanation, a changed one starts without one
+        boolean explained = snapshot.getExplanation() != null;
+        // The snapshot store acts as this operation's cache: an unchanged, already explained drift costs no model call
+        llmMetrics.recordCacheLookup(compiled.operation(), explained);
+        if (explained) {
+            return Mono.just(delta.toExplanation(snapshot.getExplanation(), snapshot.getImpactAssessment()));
+        }
+        GroupDriftSnapshot previous = delta.previous();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("groupId", snapshot.getGroupId());
+        variables.put("groupName", snapshot.getGroupName() != null ? snapshot.getGroupName() : "name unknown");
+        variables.put("baselineDate", snapshot.getBaselineDate().toString());
+        variables.put("addedCount", snapshot.getAddedMembers().size());
+        variables.put("addedSample", DriftDelta.listed(snapshot.getAddedMembers(), driftMaxListedMembers));
+        variables.put("removedCount", snapshot.getRemovedMembers().size());
+        variables.put("removedSample", DriftDelta.listed(snapshot.getRemovedMembers(), driftMaxListedMembers));
+        variables.put("previousCheck", previous != null ? previous.getTakenAt().toString() : "none, this is the first check");
+        variables.put("newlyAdded", DriftDelta.listed(delta.newlyAdded(), driftMaxListedMembers));
+        variables.put("noLongerAdded", DriftDelta.listed(delta.noLongerAdded(), driftMaxListedMembers));
+        variables.put("newlyRemoved", DriftDelta.listed(delta.newlyRemoved(), driftMaxListedMembers));
+        variables.put("noLongerRemoved", DriftDelta.listed(delta.noLongerRemoved(), driftMaxListedMembers));
+        variables.put("previousExplanation", previous != null && previous.getExplanation() != null ? previous.getExplanation() : "none");
+        variables.put("previousImpact", previous != null && previous.getImpactAssessment() != null ? previous.getImpactAssessment() : "none");
+        return streamContent(compiled.operation(), compiled.bind(variables), ToolResultMemoizer.newRequestMemo(), NO_TOOLS)
+                .map(compiled::parse)
+                .flatMap(answer -> policyDriftTracker.saveExplanation(snapshot, answer.getExplanation(), answer.getImpactAssessment())
+                        // The answer is already generated; failing to keep it for reuse must not fail the request
+                        .onErrorResume(e -> {
+                            log.warn("Could not store the drift explanation for group {}: {}", snapshot.getGroupId(), e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(delta.toExplanation(answer.getExplanation(), answer.getImpactAssessment())));
+    }
+    private Mono<PolicyDriftExplanation> doExplainPolicyDrift(String groupId, LocalDate baselineDate) {
+        CompiledPrompt<PolicyDriftExplanation> compiled = prompts.explainPolicyDrift();
+        Prompt prompt = compiled.bind(Map.of(
                 "groupId", groupId,
                 "baselineDate", baselineDate.toString()
-        ), """
-Explain the policy drift for group ID: {groupId} since {baselineDate}.
-""");
-        Prompt prompt = new Prompt(List.of(systemMessage, userMessage));
-        String response = chatClient.prompt(prompt).call().content();
-        return parser.parse(response);
+        ));
+        return streamContent(compiled.operation(), prompt, ToolResultMemoizer.newRequestMemo()).map(compiled::parse);
+    }
+    /**
+     * Hit/miss/eviction counters of the response cache used by the analytic calls.
+     */
+    public ResponseCache.CacheStats cacheStats() {
+        return responseCache.stats();
+    }
+    /**
+     * Streaming variant of {@link #recommendAccess(String, String, String, String, String)}: emits each recommended group
+     * as soon as the model has finished writing it instead of after the whole document. Uses the peer baseline the same way.
+     */
+    public Flux<AccessRecommendation.RecommendedGroup> streamRecommendAccess(String employeeId, String employeeName, String department,
+                                                                           String role, String lineManagerId) {
+        log.info("Streaming access recommendation for new joiner: {} ({})", employeeName, employeeId);
+        return streamElements(recommendationKey(employeeId, employeeName, department, role, lineManagerId),
+                () -> prepareRecommendation(employeeId, employeeName, department, role, lineManagerId, Mono.empty()),
+                "recommendedGroups", AccessRecommendation.RecommendedGroup.class, AccessRecommendation::getRecommendedGroups);
+    }
+    /**
+     * Streaming variant of {@link #explainAnomaly(String)} that emits each contributing factor as soon as it is complete.
+     * Screens first the same way and shares its cache entries; completes empty without calling the model when the
+     * pre-screen finds nothing.
+     */
+    public Flux<String> streamAnomalyFactors(String employeeId) {
+        log.info("Streaming anomaly factors for employee: {}", employeeId);
+        if (!preScreenEnabled) {
+            return streamElements(prompts.explainAnomaly().cacheKey(toolCatalog.version(), employeeId),
+                    () -> Mono.just(toolDrivenAnomalyCall(employeeId)),
+                    "contributingFactors", String.class, AnomalyExplanation::getContributingFactors);
+        }
+        return streamElements(prompts.explainAnomalyFindings().cacheKey(toolCatalog.version(), employeeId),
+                () -> anomalyPreScreen.screen(employeeId)
+                        .onErrorResume(e -> {
+                            log.warn("Anomaly pre-screen for {} failed, falling back to the tool-driven explanation: {}", employeeId, e.getMessage());
+                            return Mono.empty();
+                        })
+                        .map(screen -> screen.isClean() ? Mono.<PreparedCall<AnomalyExplanation>>empty() : screenedAnomalyCall(screen))
+                        .defaultIfEmpty(Mono.fromSupplier(() -> toolDrivenAnomalyCall(employeeId)))
+                        .flatMap(Function.identity()),
+                "contributingFactors", String.class, AnomalyExplanation::getContributingFactors);
+    }
+    /**
+     * Emits the elements of one array field of the structured answer while the model is still generating it.
+     * A cached answer is replayed from the cache; a fresh one is parsed in full once the stream completes and cached,
+     * so the blocking and streaming variants share entries. An empty {@code call} completes the stream empty.
+     */
+    private <T, E> Flux<E> streamElements(ResponseCacheKey key, Supplier<Mono<PreparedCall<T>>> call, String field,
+                                          Class<E> elementType, Function<T, List<E>> elementsOf) {
+        return Flux.defer(() -> {
+            T cached = responseCache.getIfPresent(key);
+            llmMetrics.recordCacheLookup(key.operation(), cached != null);
+            if (cached != null) {
+                List<E> elements = elementsOf.apply(cached);
+                return Flux.fromIterable(elements != null ? elements : List.of());
+            }
+            return call.get().flatMapMany(prepared -> {
+                StreamingJsonArrayParser<E> parser = new StreamingJsonArrayParser<>(field, elementType);
+                StringBuilder document = new StringBuilder();
+                return tokens(prepared)
+                        .doOnNext(document::append)
+                        .concatMapIterable(parser::feed)
+                        .doOnComplete(() -> cacheParsed(key, prepared.compiled(), document.toString()));
+            });
+        });
+    }
+    private <T> void cacheParsed(ResponseCacheKey key, CompiledPrompt<T> compiled, String document) {
+        try {
+            responseCache.put(key, compiled.parse(document));
+        } catch (RuntimeException e) {
+            log.warn("Streamed {} answer could not be parsed in full, not caching it: {}", key.operation(), e.getMessage());
+        }
+    }
+    /**
+     * Streams the completion for a prompt and joins it into one string without holding a thread
+     * while the model and the MCP tools are working. Holds an Azure OpenAI permit for the whole round trip.
+     */
+    private Mono<String> streamContent(String operation, Prompt prompt, Map<String, String> toolMemo) {
+        return joined(streamTokens(operation, prompt, toolMemo));
+    }
+    private Mono<String> streamContent(String operation, Prompt prompt, Map<String, String> toolMemo, ToolCallback[] tools) {
+        return joined(streamTokens(operation, prompt, toolMemo, tools));
+    }
+    private <T> Mono<T> complete(PreparedCall<T> call) {
+        return joined(tokens(call)).map(call.compiled()::parse);
+    }
+    private Flux<String> tokens(PreparedCall<?> call) {
+        Map<String, String> toolMemo = ToolResultMemoizer.newRequestMemo();
+        return call.withTools()
+                ? streamTokens(call.compiled().operation(), call.prompt(), toolMemo)
+                : streamTokens(call.compiled().operation(), call.prompt(), toolMemo, NO_TOOLS);
+    }
+    private Mono<String> joined(Flux<String> tokens) {
+        return tokens.collect(StringBuilder::new, StringBuilder::append)
+                .map(StringBuilder::toString)
+                .timeout(llmTimeout);
+    }
+    /**
+     * Token stream for a prompt. Holds an Azure OpenAI permit until the stream completes or is cancelled;
+     * cancelling also stops MCP tool calls the model has not made yet. Tool results land in {@code toolMemo}, and the
+     * tokens used are added to a {@link TokenUsage} found in the subscriber context.
+     */
+    private Flux<String> streamTokens(String operation, Prompt prompt, Map<String, String> toolMemo) {
+        return Flux.defer(() -> streamTokens(operation, prompt, toolMemo, toolCatalog.toolCallbacks()));
+    }
+    private Flux<String> streamTokens(String operation, Prompt prompt, Map<String, String> toolMemo, ToolCallback[] tools) {
+        return Flux.deferContextual(context -> {
+            RequestCancellation cancellation = new RequestCancellation();
+            LlmRequestMetrics requestMetrics = llmMetrics.start(operation, prompt.getInstructions(),
+                    context.getOrDefault(TokenUsage.CONTEXT_KEY, null));
+            Flux<String> tokens = chatClient.prompt(prompt)
+                    .toolCallbacks(tools)
+                    .toolContext(Map.of(ToolResultMemoizer.REQUEST_MEMO_KEY, toolMemo,
+                            RequestCancellation.TOOL_CONTEXT_KEY, cancellation,
+                            LlmRequestMetrics.TOOL_CONTEXT_KEY, requestMetrics))
+                    .stream().chatResponse()
+                    .doOnSubscribe(subscription -> requestMetrics.markStarted())
+                    .doOnNext(requestMetrics::onResponse)
+                    .mapNotNull(LlmMetrics::text)
+                    .limitRate(STREAM_PREFETCH);
+            return concurrencyLimiter.limit(DownstreamConcurrencyLimiter.AZURE_OPENAI, tokens)
+                    .doOnCancel(cancellation::cancel)
+                    .doOnTerminate(requestMetrics::reportUsage)
+                    .doFinally(requestMetrics::finish);
+        });
+    }
+    /**
+     * Response cache lookup that also counts hits and misses per operation.
+     */
+    private <T> Mono<T> cached(ResponseCacheKey key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> {
+            AtomicBoolean missed = new AtomicBoolean();
+            return responseCache.getMono(key, () -> {
+                missed.set(true);
+                llmMetrics.recordCacheLookup(key.operation(), false);
+                return loader.get();
+            }).doOnNext(value -> {
+                if (!missed.get()) {
+                    llmMetrics.recordCacheLookup(key.operation(), true);
+                }
+            });
+        });
     }
     /**
      * Provides a general chat response, potentially using tools for basic retrieval.
+     * With a conversation key the user's earlier turns and tool results are sent along, so follow-up questions
+     * do not re-fetch everything; null keeps the call stateless.
      */
-    public String generalChat(String userQuery) {
+    public Mono<String> generalChat(String conversationKey, String userQuery) {
         log.info("General chat query: {}", userQuery);
-        SystemMessage systemMessage = new SystemMessage("""
-You are a helpful AI assistant for access governance. You can answer questions about employees, groups,
-and access patterns by using the available tools. If you need more information, ask clarifying questions.
-Be concise and helpful.
-""");
-        UserMessage userMessage = new UserMessage(userQuery);
-        Prompt prompt = new Prompt(List.of(systemMessage, userMessage));
-        return chatClient.prompt(prompt).call().content();
+        return Mono.defer(() -> {
+            Map<String, String> toolMemo = conversationMemory.toolMemo(conversationKey);
+            Prompt prompt = prompts.generalChat().bindConversation(conversationMemory.history(conversationKey), userQuery);
+            return streamContent("generalChat", prompt, toolMemo)
+                    .doOnNext(answer -> conversationMemory.record(conversationKey, userQuery, answer, toolMemo));
+        });
     }
     /**
      * Provides a general chat response with streaming, potentially using tools for basic retrieval.
+     * The exchange is only remembered if the stream completes.
      */
-    public Flux<String> streamGeneralChat(String userQuery) {
+    public Flux<String> streamGeneralChat(String conversationKey, String userQuery) {
         log.info("Streaming general chat query: {}", userQuery);
-        SystemMessage systemMessage = new SystemMessage("""
-You are a helpful AI assistant for access governance. You can answer questions about employees, groups,
-and access patterns by using the available tools. If you need more information, ask clarifying questions.
-Be concise and helpful.
-""");
-        UserMessage userMessage = new UserMessage(userQuery);
-        Prompt prompt = new Prompt(List.of(systemMessage, userMessage));
-        return chatClient.prompt(prompt).stream().content();
-    }
-}
\ No newline at end of file
+        return Flux.defer(() -> {
+            Map<String, String> toolMemo = conversationMemory.toolMemo(conversationKey);
+            Prompt prompt = prompts.generalChat().bindConversation(conversationMemory.history(conversationKey), userQuery);
+            StringBuilder answer = new StringBuilder();
+            return streamTokens("streamGeneralChat", prompt, toolMemo)
+                    .doOnNext(answer::append)
+                    .doOnComplete(() -> conversationMemory.record(conversationKey, userQuery, answer.toString(), toolMemo));
+        });
+    }
+    /**
+     * A bound prompt ready to send, with or without the MCP tools attached.
+     */
+    private record PreparedCall<T>(CompiledPrompt<T> compiled, Prompt prompt, boolean withTools) {
+
+        static <T> PreparedCall<T> withTools(CompiledPrompt<T> compiled, Prompt prompt) {
+            return new PreparedCall<>(compiled, prompt, true);
+        }
+
+        static <T> PreparedCall<T> withoutTools(CompiledPrompt<T> compiled, Prompt prompt) {
+            return new PreparedCall<>(compiled, prompt, false);
+        }
+    }
+}
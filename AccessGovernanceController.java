@@ -1,26 +1,60 @@
 package com.hackathon.accessguardian.mcp.client.controller;
 
-import com.example.accessgovernance.service.AccessGovernanceClientService;
-import com.example.accessgovernance.service.model.AccessRecommendation;
-import com.example.accessgovernance.service.model.AnomalyExplanation;
-import com.example.accessgovernance.service.model.PolicyDriftExplanation;
+import com.hackathon.accessguardian.mcp.client.service.AccessGovernanceClientService;
+import com.hackathon.accessguardian.mcp.client.service.model.AccessRecommendation;
+import com.hackathon.accessguardian.mcp.client.service.model.AnomalyExplanation;
+import com.hackathon.accessguardian.mcp.client.service.model.PolicyDriftExplanation;
+import com.hackathon.accessguardian.mcp.client.service.BulkAccessRecommendationService;
+import com.hackathon.accessguardian.mcp.client.service.anomaly.AnomalyScanService;
+import com.hackathon.accessguardian.mcp.client.service.cache.ResponseCache;
+import com.hackathon.accessguardian.mcp.client.service.execution.ActiveStreamRegistry;
+import com.hackathon.accessguardian.mcp.client.service.memory.ConversationMemory;
+import com.hackathon.accessguardian.mcp.client.service.model.AnomalyScanResult;
+import com.hackathon.accessguardian.mcp.client.service.model.BulkRecommendationResult;
+import com.hackathon.accessguardian.mcp.client.service.model.JoinerRequest;
+import com.hackathon.accessguardian.mcp.client.service.sweep.SweepItem;
+import com.hackathon.accessguardian.mcp.client.service.sweep.SweepRun;
+import com.hackathon.accessguardian.mcp.client.service.sweep.SweepService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 @RestController
 @RequestMapping("/access-ai-api") # Changed base path to avoid conflict with Vaadin routes
 @RequiredArgsConstructor
 @Slf4j
 public class AccessGovernanceController {
     private final AccessGovernanceClientService clientService;
+    private final BulkAccessRecommendationService bulkService;
+    private final AnomalyScanService anomalyScanService;
+    private final SweepService sweepService;
+    private final ActiveStreamRegistry streamRegistry;
+    @Value("${access-governance.bulk.request-timeout:PT30M}")
+    private Duration bulkRequestTimeout;
     /**
      * Endpoint to get authenticated user details for external API consumers.
      */
@@ -40,45 +74,155 @@ public class AccessGovernanceController {
     }
     public record UserInfo(String employeeId, String employeeName, String email, String department, String role) {}
     /**
-     * General chat endpoint, can use tools for basic data retrieval (synchronous).
+     * General chat endpoint, can use tools for basic data retrieval.
+     * Returns the full answer once the model has finished; the servlet thread is released meanwhile.
      */
     @GetMapping("/chat")
-    public String chat(@RequestParam String query) {
-        return clientService.generalChat(query);
+    public Mono<String> chat(@RequestParam String query, @AuthenticationPrincipal OidcUser oidcUser) {
+        return clientService.generalChat(ConversationMemory.conversationKey(oidcUser), query);
     }
     /**
      * General chat endpoint with streaming responses, can use tools for basic data retrieval.
      */
     @GetMapping(value = "/stream-chat", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<String> streamChat(@RequestParam String query) {
-        return clientService.streamGeneralChat(query);
+    public Flux<String> streamChat(@RequestParam String query, @AuthenticationPrincipal OidcUser oidcUser) {
+        return clientService.streamGeneralChat(ConversationMemory.conversationKey(oidcUser), query);
     }
     /**
      * Recommends group memberships for a new joiner or role change.
+     * With {@code fast=true} only the deterministic peer baseline is returned, without calling the model.
      */
     @GetMapping("/recommend-access")
-    public AccessRecommendation recommendAccess(
+    public Mono<AccessRecommendation> recommendAccess(
             @RequestParam String targetEmployeeId,
             @RequestParam String targetEmployeeName,
             @RequestParam String department,
             @RequestParam String role,
-            @RequestParam String lineManagerId) {
+            @RequestParam String lineManagerId,
+            @RequestParam(defaultValue = "false") boolean fast) {
+        if (fast) {
+            return clientService.recommendAccessFast(targetEmployeeId, targetEmployeeName);
+        }
         return clientService.recommendAccess(targetEmployeeId, targetEmployeeName, department, role, lineManagerId);
     }
+    /**
+     * Same as above, streamed as server-sent events: one event per recommended group as soon as the model has written it.
+     */
+    @GetMapping(value = "/recommend-access/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<AccessRecommendation.RecommendedGroup> streamRecommendAccess(
+            @RequestParam String targetEmployeeId,
+            @RequestParam String targetEmployeeName,
+            @RequestParam String department,
+            @RequestParam String role,
+            @RequestParam String lineManagerId) {
+        return clientService.streamRecommendAccess(targetEmployeeId, targetEmployeeName, department, role, lineManagerId);
+    }
+    /**
+     * Recommends group memberships for a batch of joiners, streamed back as NDJSON as each one completes.
+     */
+    @PostMapping(value = "/recommend-access/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> recommendAccessBulk(@RequestBody List<JoinerRequest> joiners) {
+        return ndjson(bulkService.recommendAccessBulk(joiners));
+    }
+    /**
+     * Same as above for an uploaded CSV (header: employeeId,employeeName,department,role,lineManagerId).
+     */
+    @PostMapping(value = "/recommend-access/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> recommendAccessBulkCsv(@RequestPart("file") MultipartFile file) throws IOException {
+        return ndjson(bulkService.recommendAccessBulk(bulkService.parseCsv(file.getInputStream())));
+    }
+    /**
+     * Writes the results as NDJSON on an emitter with its own timeout, so a long bulk run does not need a long
+     * spring.mvc.async.request-timeout for every other endpoint. The run is cancelled if the client goes away or the timeout hits.
+     */
+    private ResponseEntity<ResponseBodyEmitter> ndjson(Flux<BulkRecommendationResult> results) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(bulkRequestTimeout.toMillis());
+        Disposable.Swap subscription = Disposables.swap();
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        emitter.onCompletion(subscription::dispose);
+        subscription.update(results.subscribe(result -> sendLine(emitter, result), emitter::completeWithError, emitter::complete));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+    private static void sendLine(ResponseBodyEmitter emitter, BulkRecommendationResult result) {
+        try {
+            emitter.send(result, MediaType.APPLICATION_JSON);
+            emitter.send("\n", MediaType.TEXT_PLAIN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
     /**
      * Explains a detected access anomaly for an employee.
      */
     @GetMapping("/explain-anomaly")
-    public AnomalyExplanation explainAnomaly(@RequestParam String employeeId) {
+    public Mono<AnomalyExplanation> explainAnomaly(@RequestParam String employeeId) {
         return clientService.explainAnomaly(employeeId);
     }
+    /**
+     * Streams the contributing factors of an employee's access anomaly as server-sent events.
+     */
+    @GetMapping(value = "/explain-anomaly/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<String> streamAnomalyFactors(@RequestParam String employeeId) {
+        return clientService.streamAnomalyFactors(employeeId);
+    }
+    /**
+     * Screens a department's employees (the JSON body lists their IDs) for access anomalies, streamed back as NDJSON.
+     * Only employees with findings are sent to the model, and only with {@code explain=true}.
+     */
+    @PostMapping(value = "/explain-anomaly/scan", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AnomalyScanResult> scanDepartmentAnomalies(@RequestParam String department,
+                                                           @RequestParam(defaultValue = "false") boolean explain,
+                                                           @RequestBody List<String> employeeIds) {
+        return anomalyScanService.scanDepartment(department, employeeIds, explain);
+    }
+    /**
+     * Recent org-wide drift and anomaly sweeps, newest first.
+     */
+    @GetMapping("/sweeps")
+    public List<SweepRun> sweeps() {
+        return sweepService.recentRuns();
+    }
+    /**
+     * Starts a sweep now (or resumes an interrupted one) in the background and answers 202 with the run;
+     * poll /sweeps/{runId}/report for its results. Answers 409 if a sweep is already running.
+     */
+    @PostMapping("/sweeps")
+    public Mono<ResponseEntity<SweepRun>> startSweep() {
+        return sweepService.startInBackground()
+                .map(run -> ResponseEntity.accepted()
+                        .location(URI.create("/access-ai-api/sweeps/" + run.getId() + "/report"))
+                        .body(run))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+    /**
+     * Flagged, explained, skipped and failed items of a sweep; clean employees and groups are not listed.
+     */
+    @GetMapping("/sweeps/{runId}/report")
+    public List<SweepItem> sweepReport(@PathVariable Long runId) {
+        return sweepService.report(runId);
+    }
     /**
      * Explains policy drift for a specific group.
      */
     @GetMapping("/explain-policy-drift")
-    public PolicyDriftExplanation explainPolicyDrift(
+    public Mono<PolicyDriftExplanation> explainPolicyDrift(
             @RequestParam String groupId,
             @RequestParam String baselineDate) {
         return clientService.explainPolicyDrift(groupId, LocalDate.parse(baselineDate));
     }
+    /**
+     * Hit/miss metrics of the LLM response cache.
+     */
+    @GetMapping("/cache-stats")
+    public ResponseCache.CacheStats cacheStats() {
+        return clientService.cacheStats();
+    }
+    /**
+     * Streams started from the UI and how many tokens were generated for streams that were cancelled.
+     */
+    @GetMapping("/stream-stats")
+    public ActiveStreamRegistry.StreamStats streamStats() {
+        return streamRegistry.stats();
+    }
 }
\ No newline at end of file
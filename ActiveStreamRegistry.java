@@ -0,0 +1,109 @@
+package com.hackathon.accessguardian.mcp.client.service.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the one active LLM stream of each UI (a browser tab) within each HTTP session.
+ * Starting a new query in a UI cancels the previous one, and streams can be cancelled explicitly (Stop),
+ * when the UI detaches or when the session expires. Cancelling disposes the subscription, which cancels the
+ * ChatClient stream and flags pending MCP tool calls through {@link RequestCancellation}.
+ */
+@Component
+@Slf4j
+public class ActiveStreamRegistry {
+
+    private final Map<String, Map<Integer, ActiveStream>> sessions = new ConcurrentHashMap<>();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder cancelledTokens = new LongAdder();
+
+    private record ActiveStream(String label, Disposable subscription, AtomicLong tokens, Instant startedAt) {}
+
+    /**
+     * Element counts: for chat each element is one streamed token, for structured streams one parsed item.
+     */
+    public record StreamStats(long started, long cancelled, long cancelledTokens, int active) {}
+
+    /**
+     * Subscribes to the stream on behalf of the given UI, cancelling whatever that UI was still running.
+     */
+    public <T> Disposable start(String sessionId, int uiId, String label, Flux<T> stream,
+                                Consumer<? super T> onNext, Consumer<? super Throwable> onError, Runnable onComplete) {
+        cancel(sessionId, uiId, "new query");
+        // Registered before subscribing, so a Stop that races with the subscription still cancels it
+        Disposable.Swap subscription = Disposables.swap();
+        ActiveStream active = new ActiveStream(label, subscription, new AtomicLong(), Instant.now());
+        sessions.compute(sessionId, (id, uiStreams) -> {
+            Map<Integer, ActiveStream> streams = uiStreams != null ? uiStreams : new ConcurrentHashMap<>();
+            streams.put(uiId, active);
+            return streams;
+        });
+        started.increment();
+        subscription.update(stream
+                .doOnNext(element -> active.tokens().incrementAndGet())
+                .doFinally(signal -> remove(sessionId, uiId, active))
+                .subscribe(onNext, onError, onComplete));
+        return subscription;
+    }
+
+    /**
+     * Cancels the active stream of a UI, if any, and returns the number of tokens it had received.
+     */
+    public long cancel(String sessionId, int uiId, String reason) {
+        ActiveStream[] removed = new ActiveStream[1];
+        sessions.computeIfPresent(sessionId, (id, uiStreams) -> {
+            removed[0] = uiStreams.remove(uiId);
+            return uiStreams.isEmpty() ? null : uiStreams;
+        });
+        return removed[0] == null ? 0 : dispose(removed[0], reason);
+    }
+
+    /**
+     * Cancels every stream of an expired or invalidated session.
+     */
+    public int cancelSession(String sessionId, String reason) {
+        Map<Integer, ActiveStream> uiStreams = sessions.remove(sessionId);
+        if (uiStreams == null) {
+            return 0;
+        }
+        uiStreams.values().forEach(active -> dispose(active, reason));
+        return uiStreams.size();
+    }
+
+    public StreamStats stats() {
+        int active = sessions.values().stream().mapToInt(Map::size).sum();
+        return new StreamStats(started.sum(), cancelled.sum(), cancelledTokens.sum(), active);
+    }
+
+    private long dispose(ActiveStream active, String reason) {
+        if (active.subscription().isDisposed()) {
+            return 0;
+        }
+        active.subscription().dispose();
+        long tokens = active.tokens().get();
+        cancelled.increment();
+        cancelledTokens.add(tokens);
+        log.info("Cancelled {} stream after {} tokens and {} ms ({})", active.label(), tokens,
+                Duration.between(active.startedAt(), Instant.now()).toMillis(), reason);
+        return tokens;
+    }
+
+    private void remove(String sessionId, int uiId, ActiveStream active) {
+        sessions.computeIfPresent(sessionId, (id, uiStreams) -> {
+            uiStreams.remove(uiId, active);
+            return uiStreams.isEmpty() ? null : uiStreams;
+        });
+    }
+}
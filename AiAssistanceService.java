@@ -1,19 +1,60 @@
 package com.hackathon.accessguardian.mcp.client;
 
+import com.hackathon.accessguardian.mcp.client.service.cache.ToolResultMemoizer;
+import com.hackathon.accessguardian.mcp.client.service.execution.DownstreamConcurrencyLimiter;
+import com.hackathon.accessguardian.mcp.client.service.McpToolCatalog;
+import com.hackathon.accessguardian.mcp.client.service.memory.ConversationMemory;
+import com.hackathon.accessguardian.mcp.client.service.metrics.LlmMetrics;
+import com.hackathon.accessguardian.mcp.client.service.metrics.LlmRequestMetrics;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AiAssistanceService {
     private final ChatClient chatClient;
-    private  final ToolCallbackProvider mcpToolCallbackProvider;
+    private final McpToolCatalog toolCatalog;
+    private final DownstreamConcurrencyLimiter concurrencyLimiter;
+    private final ConversationMemory conversationMemory;
+    private final LlmMetrics llmMetrics;
 
-    public String chatWithAi(String input) throws Exception {
-        String response = chatClient.prompt().user(input).toolCallbacks(mcpToolCallbackProvider.getToolCallbacks()).call().content();
-        System.out.println("AI response : " + response);
+    public String chatWithAi(String conversationKey, String input) throws Exception {
+        Map<String, String> toolMemo = conversationMemory.toolMemo(conversationKey); // earlier tool results of this user
+        List<Message> history = conversationMemory.history(conversationKey);
+        List<Message> promptMessages = new ArrayList<>(history);
+        promptMessages.add(new UserMessage(input));
+        LlmRequestMetrics requestMetrics = llmMetrics.start("chatWithAi", promptMessages);
+        SignalType outcome = SignalType.ON_ERROR;
+        String response;
+        try {
+            ChatResponse chatResponse = concurrencyLimiter.call(DownstreamConcurrencyLimiter.AZURE_OPENAI, () -> {
+                requestMetrics.markStarted();
+                return chatClient.prompt()
+                        .messages(history)
+                        .user(input)
+                        .toolCallbacks(toolCatalog.toolCallbacks())
+                        .toolContext(Map.of(ToolResultMemoizer.REQUEST_MEMO_KEY, toolMemo, LlmRequestMetrics.TOOL_CONTEXT_KEY, requestMetrics))
+                        .call().chatResponse();
+            });
+            requestMetrics.onResponse(chatResponse);
+            response = LlmMetrics.text(chatResponse);
+            outcome = SignalType.ON_COMPLETE;
+        } finally {
+            requestMetrics.finish(outcome);
+        }
+        conversationMemory.record(conversationKey, input, response, toolMemo);
+        log.debug("AI response: {}", response);
         return response;
     }
 }
@@ -1,13 +1,18 @@
 package com.hackathon.accessguardian.mcp.client.controller;
 
 import com.hackathon.accessguardian.mcp.client.AiAssistanceService;
+import com.hackathon.accessguardian.mcp.client.service.memory.ConversationMemory;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api")
+@Slf4j
 public class AiController {
 
     @Autowired
@@ -15,12 +20,12 @@ public class AiController {
 
 
     @GetMapping("/chat")
-    String chatWithAi(@RequestParam String input) {
-        System.out.println("input : " + input);
+    String chatWithAi(@RequestParam String input, @AuthenticationPrincipal OidcUser oidcUser) {
+        log.debug("Chat input: {}", input);
         try {
-            return aiAssistanceService.chatWithAi(input);
+            return aiAssistanceService.chatWithAi(ConversationMemory.conversationKey(oidcUser), input);
         } catch (Exception e) {
-            System.out.println("Error : " + e.getMessage());
+            log.warn("Chat request failed: {}", e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,"error processing chat respinse",e);
         }
     }
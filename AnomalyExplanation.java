@@ -17,4 +17,12 @@ public class AnomalyExplanation {
     private String explanation; // Plain language explanation of why it's an anomaly
     private List<String> contributingFactors; // e.g., "No peers have this access", "Role mismatch"
     private String suggestedAction; // e.g., "Review access", "Confirm role"
+
+    /**
+     * Result for an employee on whom Detect_Access_Anomalies found nothing; produced without asking the model.
+     */
+    public static AnomalyExplanation noAnomalies(String employeeId) {
+        return new AnomalyExplanation(employeeId, null, "None", null, "No access anomalies were detected for this employee.",
+                List.of(), "No action required.");
+    }
 }
@@ -0,0 +1,34 @@
+package com.hackathon.accessguardian.mcp.client.service.anomaly;
+
+import com.hackathon.accessguardian.mcp.client.service.McpToolInvoker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Calls Detect_Access_Anomalies directly over MCP so that employees without findings never reach the model.
+ * Results go through the tool catalog's memoizer, so a screen followed by an explanation fetches them once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnomalyPreScreenService {
+
+    public static final String DETECT_ACCESS_ANOMALIES = "Detect_Access_Anomalies";
+
+    private final McpToolInvoker toolInvoker;
+
+    public Mono<AnomalyScreen> screen(String employeeId) {
+        return toolInvoker.callForJson(DETECT_ACCESS_ANOMALIES, Map.of("employeeId", employeeId))
+                .map(result -> AnomalyScreen.of(employeeId, result))
+                .doOnNext(screen -> log.debug("Anomaly pre-screen for {}: {} findings", employeeId,
+                        screen.isClean() ? 0 : screen.findingCount()));
+    }
+
+    public Mono<String> employeeDetails(String employeeId) {
+        return toolInvoker.call(McpToolInvoker.GET_EMPLOYEE_DETAILS, Map.of("employeeId", employeeId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.hackathon.accessguardian.mcp.client.service.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the department anomaly scan NDJSON stream.
+ * Clean employees have findingCount 0 and no explanation; explanation is only set when the scan was asked to explain.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnomalyScanResult {
+    private String employeeId;
+    private int findingCount;
+    private JsonNode findings; // As reported by Detect_Access_Anomalies
+    private AnomalyExplanation explanation;
+    private String error;
+    private long elapsedMillis;
+}
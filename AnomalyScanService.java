@@ -0,0 +1,74 @@
+package com.hackathon.accessguardian.mcp.client.service.anomaly;
+
+import com.hackathon.accessguardian.mcp.client.service.AccessGovernanceClientService;
+import com.hackathon.accessguardian.mcp.client.service.model.AnomalyScanResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Screens a whole department for access anomalies with bounded parallelism. Every employee costs one
+ * Detect_Access_Anomalies call; the model is only asked (if at all) about the employees that have findings.
+ * The caller supplies the department roster, as no MCP tool lists the members of a department.
+ */
+@Service
+@Slf4j
+public class AnomalyScanService {
+
+    private final AnomalyPreScreenService preScreen;
+    private final AccessGovernanceClientService clientService;
+    private final int parallelism;
+
+    public AnomalyScanService(AnomalyPreScreenService preScreen, AccessGovernanceClientService clientService,
+                              @Value("${access-governance.anomaly.scan-parallelism:32}") int parallelism) {
+        this.preScreen = preScreen;
+        this.clientService = clientService;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Emits one result per employee as soon as it completes (not in input order).
+     * With {@code explain} the employees with findings also get an LLM explanation; clean ones never do.
+     */
+    public Flux<AnomalyScanResult> scanDepartment(String department, List<String> employeeIds, boolean explain) {
+        log.info("Anomaly scan of {} ({} employees, parallelism {}, explain {})", department, employeeIds.size(), parallelism, explain);
+        AtomicInteger flagged = new AtomicInteger();
+        return Flux.fromIterable(employeeIds)
+                .distinct()
+                .flatMap(employeeId -> scanOne(employeeId, explain), parallelism)
+                .doOnNext(result -> {
+                    if (result.getFindingCount() > 0) {
+                        flagged.incrementAndGet();
+                    }
+                })
+                .doOnComplete(() -> log.info("Anomaly scan of {} finished: {} of {} employees flagged",
+                        department, flagged.get(), employeeIds.size()));
+    }
+
+    private Mono<AnomalyScanResult> scanOne(String employeeId, boolean explain) {
+        long start = System.nanoTime();
+        return preScreen.screen(employeeId)
+                .flatMap(screen -> {
+                    int findingCount = screen.isClean() ? 0 : screen.findingCount();
+                    if (!explain || screen.isClean()) {
+                        return Mono.just(new AnomalyScanResult(employeeId, findingCount, screen.findings(), null, null, elapsedMillis(start)));
+                    }
+                    return clientService.explainAnomaly(employeeId, screen)
+                            .map(explanation -> new AnomalyScanResult(employeeId, findingCount, screen.findings(), explanation,
+                                    null, elapsedMillis(start)));
+                })
+                .onErrorResume(error -> {
+                    log.warn("Anomaly scan failed for {}: {}", employeeId, error.getMessage());
+                    return Mono.just(new AnomalyScanResult(employeeId, 0, null, null, error.getMessage(), elapsedMillis(start)));
+                });
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
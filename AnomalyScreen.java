@@ -0,0 +1,29 @@
+package com.hackathon.accessguardian.mcp.client.service.anomaly;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * What Detect_Access_Anomalies reported for one employee, before any model is involved.
+ *
+ * @param findings the detected anomalies as returned by the tool, an empty array when there are none
+ */
+public record AnomalyScreen(String employeeId, JsonNode findings) {
+
+    static AnomalyScreen of(String employeeId, JsonNode result) {
+        // The tool returns a plain list; tolerate a wrapping object with an "anomalies" list as well
+        JsonNode findings = result.has("anomalies") ? result.get("anomalies") : result;
+        if (findings.isMissingNode() || findings.isNull()) {
+            findings = JsonNodeFactory.instance.arrayNode();
+        }
+        return new AnomalyScreen(employeeId, findings);
+    }
+
+    public boolean isClean() {
+        return findings.isEmpty();
+    }
+
+    public int findingCount() {
+        return findings.isArray() ? findings.size() : 1;
+    }
+}
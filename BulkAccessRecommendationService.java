@@ -0,0 +1,174 @@
+package com.hackathon.accessguardian.mcp.client.service;
+
+import com.hackathon.accessguardian.mcp.client.service.model.BulkRecommendationResult;
+import com.hackathon.accessguardian.mcp.client.service.model.JoinerRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs access recommendations for a whole onboarding intake with bounded parallelism.
+ * Joiners sharing a line manager share one Get_Employee_Context_Graph lookup for that manager,
+ * which also covers the manager's direct reports (the joiner's peers).
+ */
+@Service
+@Slf4j
+public class BulkAccessRecommendationService {
+
+    static final List<String> CSV_COLUMNS = List.of("employeeId", "employeeName", "department", "role", "lineManagerId");
+
+    private final AccessGovernanceClientService clientService;
+    private final McpToolInvoker toolInvoker;
+    private final int parallelism;
+
+    public BulkAccessRecommendationService(AccessGovernanceClientService clientService, McpToolInvoker toolInvoker,
+                                           @Value("${access-governance.bulk.parallelism:16}") int parallelism) {
+        this.clientService = clientService;
+        this.toolInvoker = toolInvoker;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Emits one result per joiner as soon as it completes (not in input order).
+     * A failure for one joiner is reported in its result and does not stop the others.
+     */
+    public Flux<BulkRecommendationResult> recommendAccessBulk(List<JoinerRequest> joiners) {
+        log.info("Bulk access recommendation for {} joiners (parallelism {})", joiners.size(), parallelism);
+        // One shared, cached lookup per distinct line manager for the duration of this run
+        Map<String, Mono<String>> managerContexts = new ConcurrentHashMap<>();
+        return Flux.fromIterable(joiners)
+                .flatMap(joiner -> recommendOne(joiner, managerContexts), parallelism);
+    }
+
+    private Mono<BulkRecommendationResult> recommendOne(JoinerRequest joiner, Map<String, Mono<String>> managerContexts) {
+        long start = System.nanoTime();
+        String invalid = validate(joiner);
+        if (invalid != null) {
+            log.warn("Skipping bulk recommendation for {}: {}", joiner.getEmployeeId(), invalid);
+            return Mono.just(new BulkRecommendationResult(joiner.getEmployeeId(), null, invalid, elapsedMillis(start)));
+        }
+        // Only fetched if the peer baseline is unavailable and the model has to analyse the joiner itself
+        Mono<String> managerContext = joiner.getLineManagerId() == null || joiner.getLineManagerId().isBlank()
+                ? Mono.empty()
+                : Mono.defer(() -> managerContexts.computeIfAbsent(joiner.getLineManagerId(), this::fetchManagerContext));
+        return clientService.recommendAccess(joiner, managerContext)
+                .map(rec -> new BulkRecommendationResult(joiner.getEmployeeId(), rec, null, elapsedMillis(start)))
+                .onErrorResume(error -> {
+                    log.warn("Bulk recommendation failed for {}: {}", joiner.getEmployeeId(), error.getMessage());
+                    return Mono.just(new BulkRecommendationResult(joiner.getEmployeeId(), null, error.getMessage(), elapsedMillis(start)));
+                });
+    }
+
+    // The line manager is optional, everything else has to be present for a meaningful recommendation
+    private static String validate(JoinerRequest joiner) {
+        if (isBlank(joiner.getEmployeeId())) {
+            return "Missing employeeId";
+        }
+        if (isBlank(joiner.getEmployeeName())) {
+            return "Missing employeeName";
+        }
+        if (isBlank(joiner.getDepartment())) {
+            return "Missing department";
+        }
+        if (isBlank(joiner.getRole())) {
+            return "Missing role";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private Mono<String> fetchManagerContext(String lineManagerId) {
+        return toolInvoker.call(McpToolInvoker.GET_EMPLOYEE_CONTEXT_GRAPH, Map.of("employeeId", lineManagerId))
+                // Without a prefetched context the model simply fetches it itself
+                .onErrorResume(error -> {
+                    log.warn("Could not prefetch context graph for manager {}: {}", lineManagerId, error.getMessage());
+                    return Mono.just("");
+                })
+                .cache();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Reads joiners from a CSV with a header row naming the columns employeeId, employeeName,
+     * department, role and lineManagerId (any order, case-insensitive). Double-quoted fields may contain commas.
+     */
+    public List<JoinerRequest> parseCsv(InputStream csv) throws IOException {
+        List<JoinerRequest> joiners = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                return joiners;
+            }
+            int[] index = columnIndexes(splitCsvLine(header));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = splitCsvLine(line);
+                joiners.add(new JoinerRequest(field(fields, index[0]), field(fields, index[1]), field(fields, index[2]),
+                        field(fields, index[3]), field(fields, index[4])));
+            }
+        }
+        return joiners;
+    }
+
+    private static int[] columnIndexes(List<String> headerFields) {
+        List<String> normalized = headerFields.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+        int[] index = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            index[i] = normalized.indexOf(CSV_COLUMNS.get(i).toLowerCase(Locale.ROOT));
+            if (index[i] < 0) {
+                throw new IllegalArgumentException("CSV header is missing column " + CSV_COLUMNS.get(i));
+            }
+        }
+        return index;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
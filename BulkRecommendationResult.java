@@ -0,0 +1,18 @@
+package com.hackathon.accessguardian.mcp.client.service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the bulk recommendation NDJSON stream. Exactly one of recommendation/error is set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRecommendationResult {
+    private String employeeId;
+    private AccessRecommendation recommendation;
+    private String error;
+    private long elapsedMillis;
+}
@@ -0,0 +1,208 @@
+package com.hackathon.accessguardian.mcp.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hackathon.accessguardian.mcp.client.service.anomaly.AnomalyPreScreenService;
+import com.hackathon.accessguardian.mcp.client.service.baseline.PeerBaseline;
+import com.hackathon.accessguardian.mcp.client.service.baseline.PeerBaselineEngine;
+import com.hackathon.accessguardian.mcp.client.service.baseline.PeerBaselineService;
+import com.hackathon.accessguardian.mcp.client.service.cache.ResponseCache;
+import com.hackathon.accessguardian.mcp.client.service.cache.ToolResultMemoizer;
+import com.hackathon.accessguardian.mcp.client.service.compaction.ToolResultCompactor;
+import com.hackathon.accessguardian.mcp.client.service.execution.DownstreamConcurrencyLimiter;
+import com.hackathon.accessguardian.mcp.client.service.memory.ConversationMemory;
+import com.hackathon.accessguardian.mcp.client.service.metrics.LlmMetrics;
+import com.hackathon.accessguardian.mcp.client.service.model.AccessRecommendation;
+import com.hackathon.accessguardian.mcp.client.service.model.AnomalyExplanation;
+import com.hackathon.accessguardian.mcp.client.service.model.PolicyDriftExplanation;
+import com.hackathon.accessguardian.mcp.client.service.prompt.PromptRegistry;
+import com.hackathon.accessguardian.mcp.client.stub.StubChatModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.chat.prompt.SystemPromptTemplate;
+import org.springframework.ai.parser.BeanOutputParser;
+import org.springframework.ai.tool.ToolCallback;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU and allocation cost of the client's own per-request work, with the LLM and MCP stubbed out.
+ * Run with {@code mvn -Pbenchmarks verify} (adds {@code -prof gc} for allocation rates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientHotPathBenchmark {
+
+    static final String RECOMMENDATION_JSON = """
+            {"employeeId":"new001","employeeName":"John Doe","recommendationType":"New_Joiner_Groups",
+             "recommendedGroups":[
+               {"groupId":"grp001","groupName":"Engineering-All","justification":"All peers and the manager are members","action":"ADD"},
+               {"groupId":"grp007","groupName":"GitHub-Developers","justification":"Required for the Software Engineer role","action":"ADD"},
+               {"groupId":"grp042","groupName":"Prod-DB-Admin","justification":"Only 1 of 12 peers holds this","action":"REVIEW"}],
+             "overallJustification":"Least-privilege baseline derived from manager and peer memberships"}
+            """;
+    static final String ANOMALY_JSON = """
+            {"employeeId":"emp001","employeeName":"Alice Johnson","anomalyType":"Peer_Outlier","detectedDate":"2024-05-01",
+             "explanation":"Alice is the only member of Finance-Approvers in Engineering",
+             "contributingFactors":["No peers have this access","Role mismatch"],"suggestedAction":"Review access"}
+            """;
+    static final String DRIFT_JSON = """
+            {"groupName":"Prod-DB-Admin","baselineDate":"2024-01-01","explanation":"Three members were added without a change ticket",
+             "addedMembers":["emp004","emp019","emp023"],"removedMembers":["emp002"],"impactAssessment":"High risk - requires review"}
+            """;
+
+    private final ObjectMapper prettyPrinter = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private BeanOutputParser<AccessRecommendation> recommendationParser;
+    private BeanOutputParser<AnomalyExplanation> anomalyParser;
+    private BeanOutputParser<PolicyDriftExplanation> driftParser;
+    private AccessRecommendation recommendation;
+    private PromptRegistry prompts;
+    private AccessGovernanceClientService clientService;
+    private Map<String, Object> recommendationVariables;
+    private PeerBaselineEngine baselineEngine;
+    private JsonNode contextGraph;
+
+    @Setup
+    public void setUp() {
+        recommendationParser = new BeanOutputParser<>(AccessRecommendation.class);
+        anomalyParser = new BeanOutputParser<>(AnomalyExplanation.class);
+        driftParser = new BeanOutputParser<>(PolicyDriftExplanation.class);
+        recommendation = recommendationParser.parse(RECOMMENDATION_JSON);
+        recommendationVariables = Map.of("employeeId", "new001", "employeeName", "John Doe", "department", "Engineering",
+                "role", "Software Engineer", "lineManagerId", "mgr001");
+
+        prompts = new PromptRegistry();
+
+        // Full service with the model and MCP stubbed: no tools, no cache, limiter on the caller thread
+        DownstreamConcurrencyLimiter limiter = new DownstreamConcurrencyLimiter(name -> 1024, Duration.ofSeconds(1), Schedulers.immediate());
+        LlmMetrics llmMetrics = new LlmMetrics(new SimpleMeterRegistry());
+        McpToolCatalog toolCatalog = new McpToolCatalog(() -> new ToolCallback[0],
+                new ToolResultMemoizer(Set.of(), 1, Duration.ZERO), new ToolResultCompactor(Set.of(), Set.of(), Set.of(), 10, 10, 4000),
+                limiter, llmMetrics, Schedulers.immediate(), Duration.ofDays(1));
+        ChatClient.Builder chatClientBuilder = ChatClient.builder(new StubChatModel(prompt -> RECOMMENDATION_JSON));
+        ConversationMemory memory = new ConversationMemory(chatClientBuilder.build(), limiter, llmMetrics, Schedulers.single(),
+                3000, 400, 8, 600, Duration.ofMinutes(30), Duration.ofSeconds(60));
+        baselineEngine = new PeerBaselineEngine(0.6, 0.25, 0.15, 0.5, 0.2, 0.1, 25);
+        contextGraph = contextGraph(200, 40);
+        // Baseline, pre-screen and drift tracking off: the end-to-end benchmark keeps measuring the model path,
+        // the baseline engine has its own benchmark
+        McpToolInvoker toolInvoker = new McpToolInvoker(toolCatalog, Schedulers.immediate());
+        clientService = new AccessGovernanceClientService(chatClientBuilder, prompts, toolCatalog, ResponseCache.noop(), limiter, memory,
+                llmMetrics, new PeerBaselineService(toolInvoker, baselineEngine), false, new AnomalyPreScreenService(toolInvoker), false,
+                null, false, 50, Duration.ofSeconds(5));
+    }
+
+    // Context graph with the given number of peers, each holding a deterministic subset of the given number of groups
+    private static JsonNode contextGraph(int peers, int groups) {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode graph = mapper.createObjectNode();
+        ObjectNode employee = graph.putObject("employeeDetails").put("employeeId", "new001");
+        employee.putArray("currentGroupMemberships").addObject().put("groupId", "grp000");
+        ObjectNode manager = graph.putObject("lineManagerDetails").put("employeeId", "mgr001");
+        ArrayNode managerGroups = manager.putArray("currentGroupMemberships");
+        for (int group = 0; group < groups; group += 3) {
+            managerGroups.addObject().put("groupId", "grp%03d".formatted(group)).put("groupName", "Group-" + group);
+        }
+        ArrayNode peerNodes = graph.putArray("peerEmployeesInSameRoleAndDept");
+        for (int peer = 0; peer < peers; peer++) {
+            ObjectNode node = peerNodes.addObject().put("employeeId", "emp%04d".formatted(peer));
+            ArrayNode memberships = node.putArray("currentGroupMemberships");
+            for (int group = 0; group < groups; group++) {
+                if ((peer * 31 + group * 17) % (group + 2) == 0) {
+                    memberships.addObject().put("groupId", "grp%03d".formatted(group)).put("groupName", "Group-" + group);
+                }
+            }
+        }
+        graph.putArray("directReports");
+        return graph;
+    }
+
+    @Benchmark
+    public Message renderRecommendationSystemPrompt() {
+        String format = new BeanOutputParser<>(AccessRecommendation.class).getFormat();
+        return new SystemPromptTemplate(PromptRegistry.RECOMMEND_ACCESS_SYSTEM_TEMPLATE).createMessage(Map.of("format", format));
+    }
+
+    @Benchmark
+    public Message renderRecommendationUserPrompt() {
+        return new PromptTemplate(PromptRegistry.RECOMMEND_ACCESS_USER_TEMPLATE).createMessage(recommendationVariables);
+    }
+
+    // What the service does per request now: system message and schema are reused, only the user message is rendered
+    @Benchmark
+    public Prompt bindCompiledRecommendationPrompt() {
+        return prompts.recommendAccess().bind(recommendationVariables);
+    }
+
+    @Benchmark
+    public String recommendationFormat() {
+        return new BeanOutputParser<>(AccessRecommendation.class).getFormat();
+    }
+
+    @Benchmark
+    public String anomalyFormat() {
+        return new BeanOutputParser<>(AnomalyExplanation.class).getFormat();
+    }
+
+    @Benchmark
+    public String driftFormat() {
+        return new BeanOutputParser<>(PolicyDriftExplanation.class).getFormat();
+    }
+
+    @Benchmark
+    public AccessRecommendation parseRecommendation() {
+        return recommendationParser.parse(RECOMMENDATION_JSON);
+    }
+
+    @Benchmark
+    public AnomalyExplanation parseAnomaly() {
+        return anomalyParser.parse(ANOMALY_JSON);
+    }
+
+    @Benchmark
+    public PolicyDriftExplanation parseDrift() {
+        return driftParser.parse(DRIFT_JSON);
+    }
+
+    @Benchmark
+    public String prettyPrintRecommendation() throws Exception {
+        return prettyPrinter.writeValueAsString(recommendation);
+    }
+
+    @Benchmark
+    public PeerBaseline computePeerBaseline() {
+        return baselineEngine.compute("new001", contextGraph);
+    }
+
+    /**
+     * Everything the client does for one recommendation, minus the network: prompt build, ChatClient pipeline, parse.
+     */
+    @Benchmark
+    public AccessRecommendation recommendAccessEndToEnd() {
+        return clientService.recommendAccess("new001", "John Doe", "Engineering", "Software Engineer", "mgr001").block();
+    }
+}
@@ -0,0 +1,42 @@
+package com.hackathon.accessguardian.mcp.client.service.compaction;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * Passes an MCP tool's result through the {@link ToolResultCompactor} before the model (or the memoizer) sees it.
+ */
+public class CompactingToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final ToolResultCompactor compactor;
+    private final String toolName;
+
+    public CompactingToolCallback(ToolCallback delegate, ToolResultCompactor compactor) {
+        this.delegate = delegate;
+        this.compactor = compactor;
+        this.toolName = delegate.getToolDefinition().name();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return compactor.compact(toolName, delegate.call(toolInput));
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return compactor.compact(toolName, delegate.call(toolInput, toolContext));
+    }
+}
@@ -0,0 +1,53 @@
+package com.hackathon.accessguardian.mcp.client.service.prompt;
+
+import com.hackathon.accessguardian.mcp.client.service.cache.ResponseCacheKey;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.parser.BeanOutputParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An analytic prompt prepared at startup: the system message (persona, instructions and JSON schema)
+ * is rendered once and reused as the same instance on every call, so the prefix sent to Azure OpenAI is
+ * byte-identical and eligible for provider-side prompt caching. Only the short user message is bound per request.
+ *
+ * @param parser null for free-text prompts such as general chat
+ */
+public record CompiledPrompt<T>(String operation,
+                                SystemMessage systemMessage,
+                                String systemPromptHash,
+                                CompiledTemplate userTemplate,
+                                BeanOutputParser<T> parser) {
+
+    public Prompt bind(Map<String, ?> userVariables) {
+        return new Prompt(List.of(systemMessage, new UserMessage(userTemplate.render(userVariables))));
+    }
+
+    public Prompt bindText(String userText) {
+        return new Prompt(List.of(systemMessage, new UserMessage(userText)));
+    }
+
+    /**
+     * Free-text prompt with earlier conversation messages between the shared system message and the new question.
+     */
+    public Prompt bindConversation(List<Message> history, String userText) {
+        List<Message> messages = new ArrayList<>(history.size() + 2);
+        messages.add(systemMessage);
+        messages.addAll(history);
+        messages.add(new UserMessage(userText));
+        return new Prompt(messages);
+    }
+
+    public T parse(String response) {
+        return parser.parse(response);
+    }
+
+    public ResponseCacheKey cacheKey(String toolCatalogVersion, Object... arguments) {
+        return ResponseCacheKey.ofHashed(operation, systemPromptHash, toolCatalogVersion, arguments);
+    }
+}
@@ -0,0 +1,76 @@
+package com.hackathon.accessguardian.mcp.client.service.prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {name}-style template split into literal and variable parts once, so rendering is a single
+ * StringBuilder pass instead of a template-engine parse per request.
+ */
+public final class CompiledTemplate {
+
+    private final String source;
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    public CompiledTemplate(String source) {
+        this.source = source;
+        List<String> literalParts = new ArrayList<>();
+        List<String> variableParts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < source.length()) {
+            char c = source.charAt(position);
+            int close = c == '{' ? source.indexOf('}', position) : -1;
+            if (close > 0 && isIdentifier(source, position + 1, close)) {
+                literalParts.add(literal.toString());
+                literal.setLength(0);
+                variableParts.add(source.substring(position + 1, close));
+                position = close + 1;
+            } else {
+                // Braces that do not enclose a plain identifier (e.g. JSON examples) are kept as text
+                literal.append(c);
+                position++;
+            }
+        }
+        literalParts.add(literal.toString());
+        this.literals = literalParts.toArray(String[]::new);
+        this.variables = variableParts.toArray(String[]::new);
+        this.literalLength = literalParts.stream().mapToInt(String::length).sum();
+    }
+
+    private static boolean isIdentifier(String text, int from, int to) {
+        if (from >= to || !Character.isJavaIdentifierStart(text.charAt(from))) {
+            return false;
+        }
+        for (int i = from + 1; i < to; i++) {
+            if (!Character.isJavaIdentifierPart(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(literalLength + 32 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Object value = values.get(variables[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for template variable '" + variables[i] + "'");
+            }
+            out.append(value);
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+
+    public List<String> variables() {
+        return List.of(variables);
+    }
+
+    public String source() {
+        return source;
+    }
+}
@@ -0,0 +1,46 @@
+package com.hackathon.accessguardian.mcp.client.service.execution;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * Routes an MCP tool invocation through the {@link DownstreamConcurrencyLimiter}.
+ */
+public class ConcurrencyLimitedToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final DownstreamConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitedToolCallback(ToolCallback delegate, DownstreamConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return limiter.call(DownstreamConcurrencyLimiter.MCP, () -> delegate.call(toolInput));
+    }
+
+    // Checked before and after waiting for a permit, so a cancelled request never reaches the MCP server
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        String toolName = delegate.getToolDefinition().name();
+        RequestCancellation.throwIfCancelled(toolContext, toolName);
+        return limiter.call(DownstreamConcurrencyLimiter.MCP, () -> {
+            RequestCancellation.throwIfCancelled(toolContext, toolName);
+            return delegate.call(toolInput, toolContext);
+        });
+    }
+}
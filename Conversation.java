@@ -0,0 +1,177 @@
+package com.hackathon.accessguardian.mcp.client.service.memory;
+
+import com.hackathon.accessguardian.mcp.client.service.metrics.TokenEstimator;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of one user's conversation: a rolling summary of older turns, the recent turns verbatim and the
+ * tool results retrieved so far. Only compact references to tool results go into the prompt; the payloads
+ * are handed back to the tool layer so a repeated call is answered without reaching the MCP server.
+ */
+class Conversation {
+
+    record Turn(String question, String answer, int tokens) {}
+
+    record ToolResult(String result, long capturedAtMillis) {}
+
+    private final Deque<Turn> turns = new ArrayDeque<>();
+    private final Map<String, ToolResult> toolResults;
+    private final List<Turn> awaitingSummary = new ArrayList<>();
+    private String summary = "";
+    private int turnTokens;
+    private boolean summarizing;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    Conversation(int maxToolResults) {
+        // Access-ordered so the least recently used result is dropped first
+        this.toolResults = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ToolResult> eldest) {
+                return size() > maxToolResults;
+            }
+        };
+    }
+
+    synchronized void addTurn(String question, String answer, Map<String, String> toolMemo) {
+        Turn turn = new Turn(question, answer, TokenEstimator.estimate(question) + TokenEstimator.estimate(answer));
+        turns.addLast(turn);
+        turnTokens += turn.tokens();
+        // Results handed in from earlier turns keep their capture time, only new ones are stamped now
+        long now = System.currentTimeMillis();
+        toolMemo.forEach((call, result) -> {
+            ToolResult known = toolResults.get(call);
+            if (known == null || !known.result().equals(result)) {
+                toolResults.put(call, new ToolResult(result, now));
+            }
+        });
+        touch();
+    }
+
+    /**
+     * Removes the oldest turns until the recent window fits the budget, always keeping the latest turn.
+     */
+    synchronized List<Turn> evictOverBudget(int maxTurnTokens) {
+        List<Turn> evicted = new ArrayList<>();
+        while (turnTokens > maxTurnTokens && turns.size() > 1) {
+            Turn oldest = turns.removeFirst();
+            turnTokens -= oldest.tokens();
+            evicted.add(oldest);
+        }
+        return evicted;
+    }
+
+    /**
+     * Queues evicted turns for the rolling summary. Returns true if the caller has to start a summary run;
+     * while one is running it picks the new turns up itself, so summaries of one conversation never overlap.
+     */
+    synchronized boolean queueForSummary(List<Turn> evicted) {
+        awaitingSummary.addAll(evicted);
+        if (summarizing) {
+            return false;
+        }
+        summarizing = true;
+        return true;
+    }
+
+    /**
+     * The turns queued since the last batch. An empty batch ends the summary run.
+     */
+    synchronized List<Turn> nextSummaryBatch() {
+        if (awaitingSummary.isEmpty()) {
+            summarizing = false;
+            return List.of();
+        }
+        List<Turn> batch = List.copyOf(awaitingSummary);
+        awaitingSummary.clear();
+        return batch;
+    }
+
+    // Lets the next eviction start a new run; turns still queued are summarized then
+    synchronized void summaryRunFailed() {
+        summarizing = false;
+    }
+
+    synchronized String summary() {
+        return summary;
+    }
+
+    synchronized void summary(String summary) {
+        this.summary = summary;
+    }
+
+    /**
+     * The conversation as prompt messages: one context message (summary and tool references), then the recent turns.
+     */
+    synchronized List<Message> messages(int toolPreviewChars, long maxToolResultAgeMillis) {
+        touch();
+        dropToolResultsOlderThan(maxToolResultAgeMillis);
+        List<Message> messages = new ArrayList<>(turns.size() * 2 + 1);
+        String context = context(toolPreviewChars);
+        if (!context.isEmpty()) {
+            messages.add(new SystemMessage(context));
+        }
+        for (Turn turn : turns) {
+            messages.add(new UserMessage(turn.question()));
+            messages.add(new AssistantMessage(turn.answer()));
+        }
+        return messages;
+    }
+
+    /**
+     * Tool results captured within the given age; older ones are dropped so the next call fetches fresh data.
+     */
+    synchronized Map<String, String> toolResults(long maxAgeMillis) {
+        dropToolResultsOlderThan(maxAgeMillis);
+        Map<String, String> results = new LinkedHashMap<>();
+        toolResults.forEach((call, toolResult) -> results.put(call, toolResult.result()));
+        return results;
+    }
+
+    long lastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    private void dropToolResultsOlderThan(long maxAgeMillis) {
+        long cutoff = System.currentTimeMillis() - maxAgeMillis;
+        toolResults.values().removeIf(toolResult -> toolResult.capturedAtMillis() < cutoff);
+    }
+
+    private void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    private String context(int toolPreviewChars) {
+        StringBuilder context = new StringBuilder();
+        if (!summary.isEmpty()) {
+            context.append("Summary of the earlier conversation:\n").append(summary).append('\n');
+        }
+        if (!toolResults.isEmpty()) {
+            context.append("""
+Tool results already retrieved in this conversation. Calling a tool again with the same arguments returns the same
+result instantly, so only call tools for data that is not covered here:
+""");
+            // Iterating an access-ordered map does not reorder it
+            toolResults.forEach((call, toolResult) -> {
+                String result = toolResult.result();
+                context.append("- ").append(call).append(" -> ");
+                if (result.length() <= toolPreviewChars) {
+                    context.append(result);
+                } else {
+                    context.append(result, 0, toolPreviewChars).append("... (").append(result.length()).append(" chars)");
+                }
+                context.append('\n');
+            });
+        }
+        return context.toString();
+    }
+}
@@ -0,0 +1,192 @@
+package com.hackathon.accessguardian.mcp.client.service.memory;
+
+import com.hackathon.accessguardian.mcp.client.service.execution.DownstreamConcurrencyLimiter;
+import com.hackathon.accessguardian.mcp.client.service.metrics.LlmMetrics;
+import com.hackathon.accessguardian.mcp.client.service.metrics.LlmRequestMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user conversation memory for general chat. Each authenticated user gets a token-budgeted window of recent
+ * turns; turns that fall out of the window are folded into a rolling summary by the model, off the request path.
+ * Tool results retrieved during the conversation are kept (bounded) and fed back into later requests, so a
+ * follow-up question reuses them instead of repeating the MCP calls. Idle conversations are evicted.
+ */
+@Slf4j
+public class ConversationMemory implements AutoCloseable {
+
+    static final String SUMMARIZE_SYSTEM_PROMPT = """
+You maintain the running summary of a conversation between an access governance analyst and an AI assistant.
+Merge the previous summary and the new turns into one updated summary. Keep employee IDs, group IDs, names, dates and
+conclusions; drop pleasantries and repetition. Answer with the summary text only, at most {maxWords} words.
+""";
+
+    private final Map<String, Conversation> conversations = new ConcurrentHashMap<>();
+    private final ChatClient chatClient;
+    private final DownstreamConcurrencyLimiter concurrencyLimiter;
+    private final LlmMetrics llmMetrics;
+    private final Scheduler scheduler;
+    private final int summaryMaxTokens;
+    private final int turnBudgetTokens;
+    private final int maxToolResults;
+    private final int toolPreviewChars;
+    private final Duration idleTtl;
+    private final long toolResultTtlMillis;
+    private final Disposable evictionTask;
+
+    public ConversationMemory(ChatClient chatClient, DownstreamConcurrencyLimiter concurrencyLimiter, LlmMetrics llmMetrics, Scheduler scheduler,
+                              int maxContextTokens, int summaryMaxTokens, int maxToolResults, int toolPreviewChars, Duration idleTtl,
+                              Duration toolResultTtl) {
+        this.chatClient = chatClient;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.llmMetrics = llmMetrics;
+        this.scheduler = scheduler;
+        this.summaryMaxTokens = summaryMaxTokens;
+        // Whatever the summary and the tool references may take is not available to verbatim turns
+        this.turnBudgetTokens = Math.max(0, maxContextTokens - summaryMaxTokens - maxToolResults * toolPreviewChars / 4);
+        this.maxToolResults = maxToolResults;
+        this.toolPreviewChars = toolPreviewChars;
+        this.idleTtl = idleTtl;
+        this.toolResultTtlMillis = toolResultTtl.toMillis();
+        long sweepMillis = Math.max(1000, idleTtl.toMillis() / 4);
+        this.evictionTask = scheduler.schedulePeriodically(this::evictIdle, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Conversation key of an authenticated user: the Azure AD object id ("oid", the employee id used by
+     * SecurityConfig), falling back to the OIDC subject. Null for anonymous callers, which stay stateless.
+     */
+    public static String conversationKey(OidcUser user) {
+        if (user == null) {
+            return null;
+        }
+        String oid = user.getClaimAsString("oid");
+        return oid != null ? oid : user.getSubject();
+    }
+
+    /**
+     * Messages to place between the system prompt and the new question. Empty for unknown or anonymous users.
+     */
+    public List<Message> history(String conversationKey) {
+        Conversation conversation = conversationKey == null ? null : conversations.get(conversationKey);
+        return conversation == null ? List.of() : conversation.messages(toolPreviewChars, toolResultTtlMillis);
+    }
+
+    /**
+     * A per-request tool memo pre-filled with the conversation's tool results (see ToolResultMemoizer.REQUEST_MEMO_KEY).
+     * Only results younger than the tool-result TTL are reused, the same freshness the cross-request cache allows.
+     */
+    public Map<String, String> toolMemo(String conversationKey) {
+        Map<String, String> memo = new ConcurrentHashMap<>();
+        Conversation conversation = conversationKey == null ? null : conversations.get(conversationKey);
+        if (conversation != null) {
+            memo.putAll(conversation.toolResults(toolResultTtlMillis));
+        }
+        return memo;
+    }
+
+    /**
+     * Records a completed exchange and, if the window is over budget, schedules the rolling summary update.
+     */
+    public void record(String conversationKey, String question, String answer, Map<String, String> toolMemo) {
+        if (conversationKey == null) {
+            return;
+        }
+        Conversation conversation = conversations.computeIfAbsent(conversationKey, key -> new Conversation(maxToolResults));
+        conversation.addTurn(question, answer, toolMemo);
+        List<Conversation.Turn> evicted = conversation.evictOverBudget(turnBudgetTokens);
+        if (!evicted.isEmpty() && conversation.queueForSummary(evicted)) {
+            Mono.fromRunnable(() -> summarizeQueued(conversation))
+                    .subscribeOn(scheduler)
+                    .subscribe(null, error -> {
+                        conversation.summaryRunFailed();
+                        log.warn("Summarizing conversation {} failed: {}", conversationKey, error.getMessage());
+                    });
+        }
+    }
+
+    public void forget(String conversationKey) {
+        if (conversationKey != null) {
+            conversations.remove(conversationKey);
+        }
+    }
+
+    public int size() {
+        return conversations.size();
+    }
+
+    @Override
+    public void close() {
+        evictionTask.dispose();
+    }
+
+    void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTtl.toMillis();
+        int before = conversations.size();
+        conversations.values().removeIf(conversation -> conversation.lastAccessMillis() < cutoff);
+        int evicted = before - conversations.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle conversations", evicted);
+        }
+    }
+
+    // One run per conversation at a time, so each batch is merged into the summary the previous batch produced
+    private void summarizeQueued(Conversation conversation) {
+        List<Conversation.Turn> batch;
+        while (!(batch = conversation.nextSummaryBatch()).isEmpty()) {
+            conversation.summary(summarize(conversation.summary(), batch));
+        }
+    }
+
+    private String summarize(String previousSummary, List<Conversation.Turn> turns) {
+        String transcript = turns.stream()
+                .map(turn -> "User: " + turn.question() + "\nAssistant: " + turn.answer())
+                .collect(Collectors.joining("\n"));
+        String input = (previousSummary.isEmpty() ? "" : "Previous summary:\n" + previousSummary + "\n\n") + "New turns:\n" + transcript;
+        LlmRequestMetrics requestMetrics = llmMetrics.start("summarizeConversation",
+                List.of(new SystemMessage(SUMMARIZE_SYSTEM_PROMPT), new UserMessage(input)));
+        SignalType outcome = SignalType.ON_ERROR;
+        try {
+            ChatResponse response = concurrencyLimiter.call(DownstreamConcurrencyLimiter.AZURE_OPENAI, () -> {
+                requestMetrics.markStarted();
+                return chatClient.prompt()
+                        .system(system -> system.text(SUMMARIZE_SYSTEM_PROMPT).param("maxWords", summaryMaxTokens * 3 / 4))
+                        .user(input)
+                        .call().chatResponse();
+            });
+            requestMetrics.onResponse(response);
+            outcome = SignalType.ON_COMPLETE;
+            String summary = LlmMetrics.text(response);
+            if (summary != null && !summary.isBlank()) {
+                return truncateToBudget(summary.strip());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Model summary failed, keeping a truncated transcript instead: {}", e.getMessage());
+        } finally {
+            requestMetrics.finish(outcome);
+        }
+        return truncateToBudget(input);
+    }
+
+    // Keeps the most recent part when the summary would exceed its budget
+    private String truncateToBudget(String text) {
+        int maxChars = summaryMaxTokens * 4;
+        return text.length() <= maxChars ? text : text.substring(text.length() - maxChars);
+    }
+}
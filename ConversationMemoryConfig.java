@@ -0,0 +1,35 @@
+package com.hackathon.accessguardian.mcp.client.config;
+
+import com.hackathon.accessguardian.mcp.client.service.execution.DownstreamConcurrencyLimiter;
+import com.hackathon.accessguardian.mcp.client.service.memory.ConversationMemory;
+import com.hackathon.accessguardian.mcp.client.service.metrics.LlmMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.time.Duration;
+
+@Configuration
+@Slf4j
+public class ConversationMemoryConfig {
+
+    /**
+     * Per-user chat memory. The context budget covers summary, tool references and recent turns sent with each question.
+     */
+    @Bean
+    public ConversationMemory conversationMemory(ChatClient chatClient, DownstreamConcurrencyLimiter concurrencyLimiter,
+                                                 LlmMetrics llmMetrics, Scheduler governanceScheduler,
+                                                 @Value("${access-governance.memory.max-context-tokens:3000}") int maxContextTokens,
+                                                 @Value("${access-governance.memory.summary-max-tokens:400}") int summaryMaxTokens,
+                                                 @Value("${access-governance.memory.max-tool-results:8}") int maxToolResults,
+                                                 @Value("${access-governance.memory.tool-preview-chars:600}") int toolPreviewChars,
+                                                 @Value("${access-governance.memory.idle-ttl:PT30M}") Duration idleTtl,
+                                                 @Value("${access-governance.tool-memo.ttl:PT60S}") Duration toolResultTtl) {
+        log.info("Conversation memory: {} context tokens, {} summary tokens, idle ttl {}", maxContextTokens, summaryMaxTokens, idleTtl);
+        return new ConversationMemory(chatClient, concurrencyLimiter, llmMetrics, governanceScheduler,
+                maxContextTokens, summaryMaxTokens, maxToolResults, toolPreviewChars, idleTtl, toolResultTtl);
+    }
+}
@@ -0,0 +1,17 @@
+package com.hackathon.accessguardian.mcp.client.service.execution;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a downstream concurrency permit could not be obtained in time.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DownstreamBusyException extends RuntimeException {
+
+    public DownstreamBusyException(String downstream, Duration waited) {
+        super("Too many concurrent calls to " + downstream + ", no slot freed up within " + waited);
+    }
+}
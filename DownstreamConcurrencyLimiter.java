@@ -0,0 +1,90 @@
+package com.hackathon.accessguardian.mcp.client.service.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of in-flight calls per downstream system (Azure OpenAI, the MCP server, ...).
+ * Waiting for a permit blocks, which is why reactive callers are moved onto the governance scheduler:
+ * with virtual threads enabled a parked waiter costs a few hundred bytes instead of a platform thread.
+ */
+@Slf4j
+public class DownstreamConcurrencyLimiter {
+
+    public static final String AZURE_OPENAI = "azure-openai";
+    public static final String MCP = "mcp";
+
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final Function<String, Integer> maxConcurrentLookup;
+    private final Duration acquireTimeout;
+    private final Scheduler scheduler;
+
+    public DownstreamConcurrencyLimiter(Function<String, Integer> maxConcurrentLookup, Duration acquireTimeout, Scheduler scheduler) {
+        this.maxConcurrentLookup = maxConcurrentLookup;
+        this.acquireTimeout = acquireTimeout;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Subscribes to the source only once a permit for the downstream is held and releases it
+     * on completion, error or cancellation.
+     */
+    public <T> Mono<T> limit(String downstream, Mono<T> source) {
+        Semaphore semaphore = semaphoreFor(downstream);
+        return Mono.using(() -> acquire(downstream, semaphore), permit -> source, permit -> semaphore.release())
+                .subscribeOn(scheduler);
+    }
+
+    public <T> Flux<T> limit(String downstream, Flux<T> source) {
+        Semaphore semaphore = semaphoreFor(downstream);
+        return Flux.using(() -> acquire(downstream, semaphore), permit -> source, permit -> semaphore.release())
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Blocking variant for synchronous callers such as MCP tool callbacks.
+     */
+    public <T> T call(String downstream, Supplier<T> call) {
+        Semaphore semaphore = semaphoreFor(downstream);
+        acquire(downstream, semaphore);
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public int availablePermits(String downstream) {
+        return semaphoreFor(downstream).availablePermits();
+    }
+
+    private Semaphore semaphoreFor(String downstream) {
+        return permits.computeIfAbsent(downstream, name -> {
+            int max = maxConcurrentLookup.apply(name);
+            log.info("Limiting '{}' to {} concurrent calls", name, max);
+            return new Semaphore(max, true);
+        });
+    }
+
+    private Boolean acquire(String downstream, Semaphore semaphore) {
+        try {
+            if (!semaphore.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new DownstreamBusyException(downstream, acquireTimeout);
+            }
+            return Boolean.TRUE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DownstreamBusyException(downstream, acquireTimeout);
+        }
+    }
+}
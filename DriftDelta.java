@@ -0,0 +1,66 @@
+package com.hackathon.accessguardian.mcp.client.service.drift;
+
+import com.hackathon.accessguardian.mcp.client.service.model.PolicyDriftExplanation;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The current drift snapshot of a group and how it differs from the previous one.
+ *
+ * @param previous        the snapshot before this check, null on the first check of a group and baseline
+ * @param newlyAdded      members added since the baseline that were not in the previous snapshot's drift
+ * @param noLongerAdded   members the previous snapshot counted as added that have since left again
+ * @param newlyRemoved    members removed since the baseline that were not in the previous snapshot's drift
+ * @param noLongerRemoved members the previous snapshot counted as removed that have since come back
+ */
+public record DriftDelta(GroupDriftSnapshot snapshot, GroupDriftSnapshot previous, Set<String> newlyAdded,
+                         Set<String> noLongerAdded, Set<String> newlyRemoved, Set<String> noLongerRemoved) {
+
+    static DriftDelta between(GroupDriftSnapshot previous, GroupDriftSnapshot current) {
+        if (previous == null) {
+            return new DriftDelta(current, null, current.getAddedMembers(), Set.of(), current.getRemovedMembers(), Set.of());
+        }
+        return new DriftDelta(current, previous,
+                minus(current.getAddedMembers(), previous.getAddedMembers()),
+                minus(previous.getAddedMembers(), current.getAddedMembers()),
+                minus(current.getRemovedMembers(), previous.getRemovedMembers()),
+                minus(previous.getRemovedMembers(), current.getRemovedMembers()));
+    }
+
+    public boolean changed() {
+        return previous == null || !(newlyAdded.isEmpty() && noLongerAdded.isEmpty() && newlyRemoved.isEmpty() && noLongerRemoved.isEmpty());
+    }
+
+    /**
+     * The explanation for this drift: member lists from the snapshot, texts from the model.
+     */
+    public PolicyDriftExplanation toExplanation(String explanation, String impactAssessment) {
+        return new PolicyDriftExplanation(snapshot.getGroupName(), snapshot.getBaselineDate().toString(), explanation,
+                sorted(snapshot.getAddedMembers()), sorted(snapshot.getRemovedMembers()), impactAssessment);
+    }
+
+    /**
+     * Up to {@code max} members for a prompt, so its size does not grow with the group.
+     */
+    public static String listed(Collection<String> members, int max) {
+        if (members.isEmpty()) {
+            return "none";
+        }
+        String listed = members.stream().sorted().limit(max).collect(Collectors.joining(", "));
+        return members.size() > max ? listed + " and " + (members.size() - max) + " more" : listed;
+    }
+
+    static Set<String> minus(Set<String> left, Set<String> right) {
+        Set<String> result = new HashSet<>(left);
+        result.removeAll(right);
+        return result;
+    }
+
+    private static List<String> sorted(Set<String> members) {
+        return members.stream().sorted().toList();
+    }
+}
@@ -0,0 +1,50 @@
+package com.hackathon.accessguardian.mcp.client.config;
+
+import com.hackathon.accessguardian.mcp.client.service.execution.DownstreamConcurrencyLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Execution mode of the client. With {@code access-governance.execution.virtual-threads=true}
+ * Tomcat request handling (via spring.threads.virtual.enabled), LLM/MCP calls and Vaadin background
+ * work all run on virtual threads; otherwise they fall back to Reactor's bounded elastic pool.
+ */
+@Configuration
+@Slf4j
+public class ExecutionConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler governanceScheduler(@Value("${access-governance.execution.virtual-threads:true}") boolean virtualThreads) {
+        if (virtualThreads) {
+            log.info("Running LLM/MCP and UI background work on virtual threads");
+            ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("governance-vt-", 0).factory());
+            return Schedulers.fromExecutorService(executor, "governance-vt");
+        }
+        log.info("Running LLM/MCP and UI background work on the bounded elastic pool");
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "governance");
+    }
+
+    /**
+     * Per-downstream limits are read from access-governance.limits.&lt;downstream&gt;.max-concurrent.
+     */
+    @Bean
+    public DownstreamConcurrencyLimiter downstreamConcurrencyLimiter(Environment environment,
+                                                                     Scheduler governanceScheduler,
+                                                                     @Value("${access-governance.limits.default-max-concurrent:32}") int defaultMax,
+                                                                     @Value("${access-governance.limits.acquire-timeout:PT30S}") Duration acquireTimeout) {
+        return new DownstreamConcurrencyLimiter(
+                downstream -> environment.getProperty("access-governance.limits." + downstream + ".max-concurrent", Integer.class, defaultMax),
+                acquireTimeout,
+                governanceScheduler);
+    }
+}
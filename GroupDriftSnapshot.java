@@ -0,0 +1,74 @@
+package com.hackathon.accessguardian.mcp.client.service.drift;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Materialized drift of one group against one baseline date, as of the day the snapshot was taken:
+ * who joined and who left the group between {@code baselineDate} and {@code takenOn}.
+ * The MCP server does not expose full member lists, so the drift itself is what gets snapshotted;
+ * the next check only asks the server for changes since {@code takenOn} and composes them with this.
+ */
+@Entity
+@Table(name = "group_drift_snapshot",
+        indexes = @Index(name = "idx_group_drift_snapshot_lookup", columnList = "groupId, baselineDate, takenAt"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class GroupDriftSnapshot {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false)
+    private String groupId;
+
+    private String groupName;
+
+    @Column(nullable = false)
+    private LocalDate baselineDate;
+
+    @Column(nullable = false)
+    private LocalDate takenOn;
+
+    @Column(nullable = false)
+    private Instant takenAt;
+
+    // Whether this snapshot was composed from a previous one rather than computed by the server from the baseline
+    private boolean incremental;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "group_drift_snapshot_added", joinColumns = @JoinColumn(name = "snapshot_id"))
+    @Column(name = "employee_id")
+    private Set<String> addedMembers = new HashSet<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "group_drift_snapshot_removed", joinColumns = @JoinColumn(name = "snapshot_id"))
+    @Column(name = "employee_id")
+    private Set<String> removedMembers = new HashSet<>();
+
+    // The model's explanation of this drift, reused as long as nothing changes; unbounded, the model decides the length
+    @Lob
+    private String explanation;
+
+    @Lob
+    private String impactAssessment;
+}
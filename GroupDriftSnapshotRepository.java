@@ -0,0 +1,11 @@
+package com.hackathon.accessguardian.mcp.client.service.drift;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface GroupDriftSnapshotRepository extends JpaRepository<GroupDriftSnapshot, Long> {
+
+    List<GroupDriftSnapshot> findByGroupIdAndBaselineDateOrderByTakenAtDesc(String groupId, LocalDate baselineDate);
+}
@@ -0,0 +1,65 @@
+package com.hackathon.accessguardian.mcp.client.service.baseline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense int ids for the groups seen in one computation, with one int counter array per population.
+ * Group ids are looked up once per membership; all counting and scoring then works on primitive arrays.
+ */
+class GroupIndex {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> groupIds = new ArrayList<>();
+    private final List<String> groupNames = new ArrayList<>();
+    private final int populations;
+    private int[][] counts;
+
+    GroupIndex(int populations) {
+        this.populations = populations;
+        this.counts = new int[populations][16];
+    }
+
+    int id(String groupId, String groupName) {
+        Integer existing = ids.get(groupId);
+        if (existing != null) {
+            if (groupName != null && groupNames.get(existing) == null) {
+                groupNames.set(existing, groupName);
+            }
+            return existing;
+        }
+        int id = groupIds.size();
+        ids.put(groupId, id);
+        groupIds.add(groupId);
+        groupNames.add(groupName);
+        if (id == counts[0].length) {
+            for (int population = 0; population < populations; population++) {
+                counts[population] = Arrays.copyOf(counts[population], id * 2);
+            }
+        }
+        return id;
+    }
+
+    void add(int population, int groupId, int amount) {
+        counts[population][groupId] += amount;
+    }
+
+    int count(int population, int groupId) {
+        return counts[population][groupId];
+    }
+
+    int size() {
+        return groupIds.size();
+    }
+
+    String groupId(int id) {
+        return groupIds.get(id);
+    }
+
+    String groupName(int id) {
+        return groupNames.get(id);
+    }
+}
@@ -0,0 +1,131 @@
+package com.hackathon.accessguardian.mcp.client.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache with a fixed time-to-live per entry.
+ * Lookups and inserts are guarded by the map's monitor; loaders run outside the lock
+ * so a slow LLM call never blocks hits for other keys. Expired entries are dropped on lookup
+ * or pushed out by the LRU bound, so memory stays capped at {@code maxEntries}.
+ */
+@Slf4j
+public class InMemoryResponseCache implements ResponseCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<ResponseCacheKey, Entry> entries;
+    private final Map<ResponseCacheKey, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private record Entry(Object value, long expiresAtNanos) {}
+
+    public InMemoryResponseCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        // accessOrder = true turns the LinkedHashMap into an LRU list
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResponseCacheKey, Entry> eldest) {
+                if (size() > InMemoryResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(ResponseCacheKey key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAtNanos() - now > 0) {
+                    hits.increment();
+                    return (T) entry.value();
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public void put(ResponseCacheKey key, Object value) {
+        if (value == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        log.info("Response cache cleared");
+    }
+
+    /**
+     * Single-flight variant of {@link ResponseCache#getMono}: concurrent misses for the same key share one loader
+     * subscription instead of each calling the model. The loader is only cancelled once every waiting caller has cancelled.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> getMono(ResponseCacheKey key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> {
+            T cached = getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            Mono<T> mine = sharedLoad(key, loader);
+            Mono<?> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                log.debug("Coalescing in-flight load of {}", key.operation());
+                return (Mono<T>) running;
+            }
+            return mine;
+        });
+    }
+
+    private <T> Mono<T> sharedLoad(ResponseCacheKey key, Supplier<Mono<T>> loader) {
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> shared = Mono.defer(loader)
+                .doOnNext(value -> put(key, value))
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(shared);
+        return shared;
+    }
+
+    @Override
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size);
+    }
+}
@@ -0,0 +1,16 @@
+package com.hackathon.accessguardian.mcp.client.service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JoinerRequest {
+    private String employeeId;
+    private String employeeName;
+    private String department;
+    private String role;
+    private String lineManagerId;
+}
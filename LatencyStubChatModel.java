@@ -0,0 +1,138 @@
+package com.hackathon.accessguardian.mcp.client.stub;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@link StubChatModel} that behaves like a remote model: the first token arrives after a fixed latency
+ * and the rest streams at a fixed token rate. A "token" is approximated as 4 characters.
+ * With scripted {@link ToolTurn}s it also asks for tool calls the way a real model does: while the prompt has
+ * fewer tool results than there are turns and the tool is attached, the next turn's call is requested and run
+ * through the {@link ToolCallingManager} (so the MCP tool callbacks, pool and memoizer are exercised), and only
+ * then is the canned answer streamed. Prompts sent without tools get the answer straight away.
+ */
+public class LatencyStubChatModel extends StubChatModel {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    /**
+     * A tool call the stub requests before answering; {@code arguments} builds the JSON arguments from the prompt.
+     */
+    public record ToolTurn(String toolName, Function<Prompt, String> arguments) {}
+
+    private final Function<Prompt, String> responder;
+    private final Duration firstTokenLatency;
+    private final Duration perToken;
+    private final List<ToolTurn> toolTurns;
+    private final ToolCallingManager toolCallingManager;
+
+    public LatencyStubChatModel(Function<Prompt, String> responder, Duration firstTokenLatency, int tokensPerSecond) {
+        this(responder, firstTokenLatency, tokensPerSecond, List.of(), ToolCallingManager.builder().build());
+    }
+
+    public LatencyStubChatModel(Function<Prompt, String> responder, Duration firstTokenLatency, int tokensPerSecond,
+                                List<ToolTurn> toolTurns, ToolCallingManager toolCallingManager) {
+        super(responder);
+        this.responder = responder;
+        this.firstTokenLatency = firstTokenLatency;
+        this.perToken = Duration.ofNanos(1_000_000_000L / Math.max(1, tokensPerSecond));
+        this.toolTurns = List.copyOf(toolTurns);
+        this.toolCallingManager = toolCallingManager;
+    }
+
+    /**
+     * ChatClient only attaches tool callbacks and tool context to options that support tool calling.
+     */
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return ToolCallingChatOptions.builder().build();
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        ChatResponse toolCall = scriptedToolCall(prompt);
+        if (toolCall != null) {
+            sleep(firstTokenLatency);
+            return call(afterToolCall(prompt, toolCall));
+        }
+        String text = responder.apply(prompt);
+        sleep(firstTokenLatency.plus(perToken.multipliedBy(tokenize(text).size())));
+        return response(text);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            ChatResponse toolCall = scriptedToolCall(prompt);
+            if (toolCall != null) {
+                // Like the real streaming models, the tool-call round trip is not emitted, only the final answer
+                return Mono.delay(firstTokenLatency)
+                        .then(Mono.fromCallable(() -> afterToolCall(prompt, toolCall)).subscribeOn(Schedulers.boundedElastic()))
+                        .flatMapMany(this::stream);
+            }
+            List<String> tokens = tokenize(responder.apply(prompt));
+            Flux<ChatResponse> chunks = Flux.fromIterable(tokens).map(StubChatModel::response);
+            if (tokens.size() > 1) {
+                chunks = Flux.concat(chunks.take(1), chunks.skip(1).delayElements(perToken));
+            }
+            return chunks.delaySubscription(firstTokenLatency);
+        });
+    }
+
+    // The next scripted call if it is due and the tool is attached to this prompt, otherwise null
+    private ChatResponse scriptedToolCall(Prompt prompt) {
+        long toolResults = prompt.getInstructions().stream()
+                .filter(message -> message.getMessageType() == MessageType.TOOL)
+                .count();
+        if (toolResults >= toolTurns.size() || !(prompt.getOptions() instanceof ToolCallingChatOptions options)) {
+            return null;
+        }
+        ToolTurn turn = toolTurns.get((int) toolResults);
+        // Spring AI prefixes MCP tool names with the connection name
+        return options.getToolCallbacks().stream()
+                .map(callback -> callback.getToolDefinition().name())
+                .filter(name -> name.equals(turn.toolName()) || name.endsWith("_" + turn.toolName()))
+                .findFirst()
+                .map(name -> new AssistantMessage.ToolCall("call_" + (toolResults + 1), "function", name, turn.arguments().apply(prompt)))
+                .map(call -> new ChatResponse(List.of(new Generation(new AssistantMessage("", Map.of(), List.of(call))))))
+                .orElse(null);
+    }
+
+    private Prompt afterToolCall(Prompt prompt, ChatResponse toolCall) {
+        ToolExecutionResult result = toolCallingManager.executeToolCalls(prompt, toolCall);
+        return new Prompt(result.conversationHistory(), prompt.getOptions());
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating model latency", e);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>(text.length() / CHARS_PER_TOKEN + 1);
+        for (int i = 0; i < text.length(); i += CHARS_PER_TOKEN) {
+            tokens.add(text.substring(i, Math.min(text.length(), i + CHARS_PER_TOKEN)));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,105 @@
+package com.hackathon.accessguardian.mcp.client.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Micrometer meters for every ChatClient call, tagged by operation (recommendAccess, explainAnomaly, generalChat, ...):
+ * <ul>
+ *   <li>{@code governance.llm.tokens} (type=prompt|completion|tool_result) - tokens per request, reported by the model
+ *       where available, estimated otherwise</li>
+ *   <li>{@code governance.llm.request} - end-to-end latency with outcome, split into {@code governance.llm.model.time}
+ *       and {@code governance.llm.tool.time}</li>
+ *   <li>{@code governance.llm.tool.calls} - MCP tool round trips per request</li>
+ *   <li>{@code governance.mcp.tool.call} - latency of each tool call, tagged by tool</li>
+ *   <li>{@code governance.llm.cache} (result=hit|miss) - response cache lookups</li>
+ * </ul>
+ * Exposed at /actuator/prometheus.
+ */
+@Component
+public class LlmMetrics {
+
+    private final MeterRegistry registry;
+
+    public LlmMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Starts tracking one ChatClient call. Put the result in the ToolContext under
+     * {@link LlmRequestMetrics#TOOL_CONTEXT_KEY} so tool calls are attributed to it.
+     */
+    public LlmRequestMetrics start(String operation, List<Message> promptMessages) {
+        return start(operation, promptMessages, null);
+    }
+
+    /**
+     * Same as {@link #start(String, List)}, also adding the call's tokens to {@code usage} (may be null) when it ends.
+     */
+    public LlmRequestMetrics start(String operation, List<Message> promptMessages, TokenUsage usage) {
+        return new LlmRequestMetrics(this, operation, TokenEstimator.estimate(promptMessages), usage);
+    }
+
+    public void recordCacheLookup(String operation, boolean hit) {
+        Counter.builder("governance.llm.cache")
+                .tag("operation", operation)
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    void recordToolCall(String tool, Duration elapsed, boolean success) {
+        Timer.builder("governance.mcp.tool.call")
+                .tag("tool", tool)
+                .tag("outcome", success ? "success" : "error")
+                .register(registry)
+                .record(elapsed);
+    }
+
+    void recordRequest(LlmRequestMetrics request, String outcome, Duration total) {
+        String operation = request.operation();
+        tokens(operation, "prompt").record(request.promptTokens());
+        tokens(operation, "completion").record(request.completionTokens());
+        tokens(operation, "tool_result").record(request.toolResultTokens());
+        DistributionSummary.builder("governance.llm.tool.calls")
+                .tag("operation", operation)
+                .register(registry)
+                .record(request.toolCalls());
+        Timer.builder("governance.llm.request")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(total);
+        Duration toolTime = request.toolTime();
+        timer("governance.llm.tool.time", operation).record(toolTime);
+        timer("governance.llm.model.time", operation).record(total.minus(toolTime).isNegative() ? Duration.ZERO : total.minus(toolTime));
+    }
+
+    private DistributionSummary tokens(String operation, String type) {
+        return DistributionSummary.builder("governance.llm.tokens")
+                .baseUnit("tokens")
+                .tag("operation", operation)
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private Timer timer(String name, String operation) {
+        return Timer.builder(name).tag("operation", operation).register(registry);
+    }
+
+    /**
+     * Text of one streamed or final response, null for chunks that carry only metadata.
+     */
+    public static String text(ChatResponse response) {
+        return response.getResult() == null || response.getResult().getOutput() == null
+                ? null : response.getResult().getOutput().getText();
+    }
+}
@@ -0,0 +1,130 @@
+package com.hackathon.accessguardian.mcp.client.service.metrics;
+
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.ToolContext;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of one ChatClient call, filled from the response stream and from tool callbacks (which run on other
+ * threads) and published to {@link LlmMetrics} once when the call ends.
+ */
+public class LlmRequestMetrics {
+
+    /**
+     * ToolContext key under which a request carries its metrics.
+     */
+    public static final String TOOL_CONTEXT_KEY = "llmRequestMetrics";
+
+    private final LlmMetrics metrics;
+    private final String operation;
+    private final int estimatedPromptTokens;
+    private final TokenUsage usage;
+    private final AtomicInteger reportedPromptTokens = new AtomicInteger();
+    private final AtomicInteger reportedCompletionTokens = new AtomicInteger();
+    private final AtomicLong completionChars = new AtomicLong();
+    private final AtomicInteger toolCalls = new AtomicInteger();
+    private final AtomicInteger toolResultTokens = new AtomicInteger();
+    private final AtomicLong toolNanos = new AtomicLong();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final AtomicBoolean usageReported = new AtomicBoolean();
+    private volatile long startNanos = System.nanoTime();
+
+    LlmRequestMetrics(LlmMetrics metrics, String operation, int estimatedPromptTokens, TokenUsage usage) {
+        this.metrics = metrics;
+        this.operation = operation;
+        this.estimatedPromptTokens = estimatedPromptTokens;
+        this.usage = usage;
+    }
+
+    /**
+     * Restarts the clock, e.g. once a concurrency permit has been acquired, so queueing is not counted as model time.
+     */
+    public void markStarted() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Usage arrives with the last chunk of a stream (or the only response of a blocking call); with tool calling
+     * there is one usage per model round trip, which are added up.
+     */
+    public void onResponse(ChatResponse response) {
+        String text = LlmMetrics.text(response);
+        if (text != null) {
+            completionChars.addAndGet(text.length());
+        }
+        Usage usage = response.getMetadata() == null ? null : response.getMetadata().getUsage();
+        if (usage != null && usage.getPromptTokens() != null && usage.getPromptTokens() > 0) {
+            reportedPromptTokens.addAndGet(usage.getPromptTokens());
+            reportedCompletionTokens.addAndGet(usage.getCompletionTokens() == null ? 0 : usage.getCompletionTokens());
+        }
+    }
+
+    public void onToolCall(String tool, long elapsedNanos, String result, boolean success) {
+        toolCalls.incrementAndGet();
+        toolNanos.addAndGet(elapsedNanos);
+        toolResultTokens.addAndGet(TokenEstimator.estimate(result));
+        metrics.recordToolCall(tool, Duration.ofNanos(elapsedNanos), success);
+    }
+
+    public void finish(SignalType signal) {
+        if (finished.compareAndSet(false, true)) {
+            String outcome = switch (signal) {
+                case ON_COMPLETE -> "success";
+                case CANCEL -> "cancelled";
+                default -> "error";
+            };
+            metrics.recordRequest(this, outcome, Duration.ofNanos(System.nanoTime() - startNanos));
+            reportUsage();
+        }
+    }
+
+    /**
+     * Adds this call's tokens to the caller's {@link TokenUsage}, once. Call it before the stream's terminal signal
+     * reaches the caller, so the usage is complete by the time the caller sees the result.
+     */
+    public void reportUsage() {
+        if (usage != null && usageReported.compareAndSet(false, true)) {
+            usage.add(promptTokens(), completionTokens());
+        }
+    }
+
+    /**
+     * Metrics of the request a tool call belongs to, or null when the call did not come through an instrumented request.
+     */
+    public static LlmRequestMetrics from(ToolContext toolContext) {
+        return toolContext != null && toolContext.getContext().get(TOOL_CONTEXT_KEY) instanceof LlmRequestMetrics request
+                ? request : null;
+    }
+
+    String operation() {
+        return operation;
+    }
+
+    int promptTokens() {
+        int reported = reportedPromptTokens.get();
+        return reported > 0 ? reported : estimatedPromptTokens + toolResultTokens.get();
+    }
+
+    int completionTokens() {
+        int reported = reportedCompletionTokens.get();
+        return reported > 0 ? reported : (int) ((completionChars.get() + 3) / 4);
+    }
+
+    int toolResultTokens() {
+        return toolResultTokens.get();
+    }
+
+    int toolCalls() {
+        return toolCalls.get();
+    }
+
+    Duration toolTime() {
+        return Duration.ofNanos(toolNanos.get());
+    }
+}
@@ -0,0 +1,55 @@
+package com.hackathon.accessguardian.mcp.client.loadtest;
+
+import com.hackathon.accessguardian.mcp.client.stub.LatencyStubChatModel;
+import com.hackathon.accessguardian.mcp.client.stub.SyntheticResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Active with the "loadtest" profile: swaps Azure OpenAI for a latency-simulating stub model and opens
+ * the REST endpoints so the {@link LoadTestDriver} can call them without an Azure AD login.
+ * Never enable this profile in a real deployment.
+ */
+@Configuration
+@Profile("loadtest")
+@Slf4j
+public class LoadTestConfig {
+
+    @Bean
+    @Primary
+    public ChatModel stubChatModel(@Value("${loadtest.llm.first-token-latency:PT0.8S}") Duration firstTokenLatency,
+                                   @Value("${loadtest.llm.tokens-per-second:60}") int tokensPerSecond,
+                                   @Value("${loadtest.llm.tool-calls:true}") boolean toolCalls,
+                                   ToolCallingManager toolCallingManager) {
+        log.warn("LOAD TEST MODE: using a stub chat model ({} to first token, {} tokens/s, tool calls {})",
+                firstTokenLatency, tokensPerSecond, toolCalls ? "on" : "off");
+        // Tool-driven prompts first get a Get_Employee_Context_Graph call, so the MCP path is under load too
+        List<LatencyStubChatModel.ToolTurn> toolTurns = toolCalls
+                ? List.of(new LatencyStubChatModel.ToolTurn("Get_Employee_Context_Graph", SyntheticResponses::employeeArguments))
+                : List.of();
+        return new LatencyStubChatModel(SyntheticResponses::forPrompt, firstTokenLatency, tokensPerSecond, toolTurns, toolCallingManager);
+    }
+
+    @Bean
+    @Order(0)
+    public SecurityFilterChain loadTestApiFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher("/access-ai-api/**", "/api/**")
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+                .csrf(AbstractHttpConfigurer::disable)
+                .build();
+    }
+}
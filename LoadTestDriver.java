@@ -0,0 +1,152 @@
+package com.hackathon.accessguardian.mcp.client.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Closed-loop load generator for the client's REST endpoints. Each virtual user picks an endpoint
+ * round robin, calls it with IDs from the same {@link SyntheticOrg} the stub MCP server uses, and waits
+ * for the answer before the next call. Prints throughput and p50/p90/p99 latency per endpoint.
+ * <p>
+ * Usage: {@code java ... LoadTestDriver [baseUrl=http://localhost:8080] [users=50] [seconds=60] [employees=5000]}
+ * against a client started with the "loadtest" profile and a running {@link StubMcpServer}.
+ */
+public class LoadTestDriver {
+
+    static final long DATASET_SEED = 42L;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final String baseUrl;
+    private final SyntheticOrg org;
+    private final Map<String, Function<SyntheticOrg, String>> endpoints = new LinkedHashMap<>();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    public LoadTestDriver(String baseUrl, SyntheticOrg org) {
+        this.baseUrl = baseUrl;
+        this.org = org;
+        endpoints.put("recommend-access", o -> {
+            SyntheticOrg.Employee e = pick(o.employees());
+            return "/access-ai-api/recommend-access?targetEmployeeId=" + e.employeeId() + "&targetEmployeeName=" + encode(e.name())
+                    + "&department=" + encode(e.department()) + "&role=" + encode(e.role()) + "&lineManagerId=" + e.lineManagerId();
+        });
+        endpoints.put("explain-anomaly", o -> "/access-ai-api/explain-anomaly?employeeId=" + pick(o.employees()).employeeId());
+        endpoints.put("explain-policy-drift", o -> "/access-ai-api/explain-policy-drift?groupId=" + pick(o.groups()).groupId()
+                + "&baselineDate=2024-01-01");
+        endpoints.put("access-ai-chat", o -> "/access-ai-api/chat?query=" + encode("Which groups does " + pick(o.employees()).employeeId() + " belong to?"));
+        endpoints.put("api-chat", o -> "/api/chat?input=" + encode("Who is the manager of " + pick(o.employees()).employeeId() + "?"));
+        endpoints.keySet().forEach(name -> stats.put(name, new EndpointStats()));
+    }
+
+    public void run(int users, Duration duration) throws InterruptedException {
+        List<String> names = new ArrayList<>(endpoints.keySet());
+        long deadline = System.nanoTime() + duration.toNanos();
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < users; u++) {
+                int offset = u;
+                workers.submit(() -> {
+                    int i = offset;
+                    while (System.nanoTime() < deadline) {
+                        String name = names.get(i++ % names.size());
+                        call(name, endpoints.get(name).apply(org));
+                    }
+                });
+            }
+            workers.shutdown();
+            workers.awaitTermination(duration.toSeconds() + 300, TimeUnit.SECONDS);
+        }
+        report(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void call(String name, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMinutes(3))
+                .GET()
+                .build();
+        long begin = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            stats.get(name).record(System.nanoTime() - begin, response.statusCode() < 400);
+        } catch (Exception e) {
+            stats.get(name).record(System.nanoTime() - begin, false);
+        }
+    }
+
+    private void report(Duration elapsed) {
+        System.out.printf("%n%-22s %8s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        stats.forEach((name, s) -> {
+            long[] sorted = s.sortedLatencies();
+            System.out.printf("%-22s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, sorted.length, s.errors.sum(),
+                    sorted.length / (elapsed.toNanos() / 1e9),
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+        });
+    }
+
+    static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    private static <T> T pick(List<T> items) {
+        return items.get(ThreadLocalRandom.current().nextInt(items.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static final class EndpointStats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private final LongAdder errors = new LongAdder();
+
+        synchronized void record(long nanos, boolean success) {
+            if (!success) {
+                errors.increment();
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] copy = Arrays.copyOf(latencies, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int employees = args.length > 3 ? Integer.parseInt(args[3]) : 5000;
+        SyntheticOrg org = new SyntheticOrg(employees, 20, DATASET_SEED);
+        System.out.printf("Load testing %s with %d users for %ds (%d synthetic employees)%n", baseUrl, users, seconds, employees);
+        new LoadTestDriver(baseUrl, org).run(users, Duration.ofSeconds(seconds));
+    }
+}
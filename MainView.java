@@ -2,11 +2,15 @@ package com.hackathon.accessguardian.mcp.client.ui;
 
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.hackathon.accessguardian.mcp.client.service.AccessGovernanceClientService;
+import com.hackathon.accessguardian.mcp.client.service.execution.ActiveStreamRegistry;
+import com.hackathon.accessguardian.mcp.client.service.memory.ConversationMemory;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Paragraph;
@@ -17,19 +21,29 @@ import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.spring.security.AuthenticationContext;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import java.time.LocalDate;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 @Route("") // Maps this view to the root URL
 @PageTitle("Access Governance AI")
 public class MainView extends VerticalLayout {
     private final AccessGovernanceClientService clientService;
     private final ObjectMapper objectMapper; // For pretty printing JSON
+    private final Scheduler backgroundScheduler; // Virtual threads or bounded elastic, see ExecutionConfig
     private final UI ui; // Reference to the current UI for thread-safe updates
+    private final ActiveStreamRegistry streamRegistry; // At most one running LLM request per UI, see stopStreamingChat
+    private final String sessionKey;
+    private String conversationKey; // Authenticated user's chat memory, null when not logged in
     private TextArea responseDisplay;
+    private StreamingTextRenderer responseRenderer; // Coalesces streamed tokens into frames for responseDisplay
     private Paragraph userInfoParagraph;
     // Fields for Access Recommendation
     private TextField recEmployeeId;
@@ -37,14 +51,20 @@ public class MainView extends VerticalLayout {
     private TextField recDepartment;
     private TextField recRole;
     private TextField recLineManagerId;
+    private Checkbox recFastMode;
     // Fields for Anomaly Explanation
     private TextField anomalyEmployeeId;
     // Fields for Policy Drift Explanation
     private TextField driftGroupId;
     private TextField driftBaselineDate;
-    public MainView(AccessGovernanceClientService clientService, AuthenticationContext authContext) {
+    public MainView(AccessGovernanceClientService clientService, AuthenticationContext authContext, Scheduler backgroundScheduler,
+                    ActiveStreamRegistry streamRegistry) {
         this.clientService = clientService;
+        this.backgroundScheduler = backgroundScheduler;
+        this.streamRegistry = streamRegistry;
         this.ui = UI.getCurrent(); // Get current UI instance
+        this.sessionKey = VaadinSession.getCurrent().getPushId(); // Same key StreamCleanupSessionListener cancels on expiry
+        addDetachListener(event -> streamRegistry.cancel(sessionKey, ui.getUIId(), "view detached"));
         this.objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT); // Pretty print JSON
         setSizeFull();
         setPadding(true);
@@ -60,6 +80,7 @@ public class MainView extends VerticalLayout {
 // Fetch and display user info on load
         authContext.getAuthenticatedUser(OidcUser.class).ifPresentOrElse(
                 oidcUser -> {
+                    conversationKey = ConversationMemory.conversationKey(oidcUser);
                     String employeeId = oidcUser.getEmployeeId();
                     String employeeName = oidcUser.getFullName();
                     userInfoParagraph.setText("Logged in as: " + employeeName + " (ID: " + employeeId + ")");
@@ -93,13 +114,15 @@ public class MainView extends VerticalLayout {
         recDepartment = new TextField("Department:", "Engineering");
         recRole = new TextField("Role:", "Software Engineer");
         recLineManagerId = new TextField("Line Manager ID:", "mgr001");
+        recFastMode = new Checkbox("Fast mode (peer baseline only, no AI)");
         Button sendRecButton = new Button("Get Recommendation", event -> sendRecommendation());
-        add(recEmployeeId, recEmployeeName, recDepartment, recRole, recLineManagerId, sendRecButton);
+        add(recEmployeeId, recEmployeeName, recDepartment, recRole, recLineManagerId, recFastMode, sendRecButton);
 // --- Access Anomaly Explanation Section ---
         add(new H2("Access Anomaly Explanation"));
         add(new Paragraph("<i>Pre-filled with your authenticated Employee ID.</i>"));
         Button sendAnomalyButton = new Button("Explain Anomaly", event -> sendAnomalyExplanation());
-        add(anomalyEmployeeId, sendAnomalyButton);
+        Button streamFactorsButton = new Button("Stream Contributing Factors", event -> streamAnomalyFactors());
+        add(anomalyEmployeeId, new HorizontalLayout(sendAnomalyButton, streamFactorsButton));
 // --- Policy Drift Explanation Section ---
         add(new H2("Policy Drift Explanation"));
         driftGroupId = new TextField("Group ID:", "grp001");
@@ -113,28 +136,43 @@ public class MainView extends VerticalLayout {
         responseDisplay.setWidthFull();
         responseDisplay.setHeight("300px");
         add(responseDisplay);
+        responseRenderer = new StreamingTextRenderer(ui, responseDisplay, Schedulers.parallel());
     }
     private void setResponse(String text) {
-        ui.access(() -> responseDisplay.setValue(text));
+        responseRenderer.reset(text);
     }
     private void appendResponse(String text) {
-        ui.access(() -> responseDisplay.setValue(responseDisplay.getValue() + text));
+        responseRenderer.append(text);
+    }
+    private void completeResponse(String trailer) {
+        responseRenderer.complete(trailer);
     }
     private void showLoading() {
         setResponse("Loading...");
     }
+    /**
+     * Runs a request for this UI through the stream registry, which cancels the previous one still running.
+     */
+    private <T> void track(String label, Flux<T> request, Consumer<T> onNext, Consumer<Throwable> onError, Runnable onComplete) {
+        streamRegistry.start(sessionKey, ui.getUIId(), label, request.subscribeOn(backgroundScheduler), onNext, onError, onComplete);
+    }
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response is not serializable", e);
+        }
+    }
     private void sendGeneralChat(String query) {
         if (query.isEmpty()) {
             Notification.show("Please enter a query.");
             return;
         }
         showLoading();
-        clientService.generalChat(query)
-                .subscribeOn(Schedulers.boundedElastic()) // Run on a separate thread
-                .subscribe(
-                        this::setResponse,
-                        error -> setResponse("Error: " + error.getMessage())
-                );
+        track("chat", clientService.generalChat(conversationKey, query).flux(),
+                this::setResponse,
+                error -> setResponse("Error: " + error.getMessage()),
+                () -> {});
     }
     private void startStreamingChat(String query) {
         if (query.isEmpty()) {
@@ -142,20 +180,15 @@ public class MainView extends VerticalLayout {
             return;
         }
         setResponse(""); // Clear previous content
-        showLoading();
-        clientService.streamGeneralChat(query)
-                .subscribeOn(Schedulers.boundedElastic()) // Run on a separate thread
-                .doOnNext(this::appendResponse)
-                .doOnError(error -> setResponse("\n\n--- Stream ended with error: " + error.getMessage() + " ---"))
-                .doOnComplete(() -> setResponse(responseDisplay.getValue() + "\n\n--- Stream completed ---"))
-                .subscribe();
+        track("stream-chat", clientService.streamGeneralChat(conversationKey, query),
+                this::appendResponse,
+                error -> completeResponse("\n\n--- Stream ended with error: " + error.getMessage() + " ---"),
+                () -> completeResponse("\n\n--- Stream completed ---"));
     }
     private void stopStreamingChat() {
-// For Flux, stopping is typically handled by cancelling the subscription.
-// In this simple UI, we don't store the subscription, so a refresh or new query
-// would eﬀectively stop the previous stream. For a more robust solution,
-// you'd store the Disposable and call dispose() here.
-        Notification.show("Streaming stopped (new query or refresh will clear).");
+        long tokens = streamRegistry.cancel(sessionKey, ui.getUIId(), "stopped by user");
+        completeResponse("\n\n--- Stream stopped ---");
+        Notification.show("Streaming stopped after " + tokens + " tokens.");
     }
     private void sendRecommendation() {
         String employeeId = recEmployeeId.getValue();
@@ -172,12 +205,26 @@ public class MainView extends VerticalLayout {
             return;
         }
         showLoading();
-        clientService.recommendAccess(employeeId, employeeName, department, role, lineManagerId)
-                .subscribeOn(Schedulers.boundedElastic())
-                .subscribe(
-                        rec -> setResponse(objectMapper.writeValueAsString(rec)),
-                        error -> setResponse("Error: " + error.getMessage())
-                );
+        if (recFastMode.getValue()) {
+            track("recommend-access-fast", clientService.recommendAccessFast(employeeId, employeeName).flux(),
+                    recommendation -> setResponse(toJson(recommendation)),
+                    error -> setResponse("Error: " + error.getMessage()),
+                    () -> {});
+            return;
+        }
+        // Groups are shown one by one as the model writes them rather than after the whole recommendation
+        AtomicBoolean first = new AtomicBoolean(true);
+        track("recommend-access", clientService.streamRecommendAccess(employeeId, employeeName, department, role, lineManagerId),
+                group -> {
+                    String json = toJson(group) + "\n";
+                    if (first.getAndSet(false)) {
+                        setResponse(json);
+                    } else {
+                        appendResponse(json);
+                    }
+                },
+                error -> completeResponse("\n--- Recommendation ended with error: " + error.getMessage() + " ---"),
+                () -> completeResponse(first.get() ? "No groups recommended." : "--- Recommendation completed ---"));
     }
     private void sendAnomalyExplanation() {
         String employeeId = anomalyEmployeeId.getValue();
@@ -186,12 +233,26 @@ public class MainView extends VerticalLayout {
             return;
         }
         showLoading();
-        clientService.explainAnomaly(employeeId)
-                .subscribeOn(Schedulers.boundedElastic())
-                .subscribe(
-                        anomaly -> setResponse(objectMapper.writeValueAsString(anomaly)),
-                        error -> setResponse("Error: " + error.getMessage())
-                );
+        track("explain-anomaly", clientService.explainAnomaly(employeeId).flux(),
+                anomaly -> setResponse(toJson(anomaly)),
+                error -> setResponse("Error: " + error.getMessage()),
+                () -> {});
+    }
+    private void streamAnomalyFactors() {
+        String employeeId = anomalyEmployeeId.getValue();
+        if (employeeId.isEmpty()) {
+            Notification.show("Employee ID is required for anomaly explanation.");
+            return;
+        }
+        setResponse("Contributing factors:\n");
+        AtomicBoolean any = new AtomicBoolean();
+        track("anomaly-factors", clientService.streamAnomalyFactors(employeeId),
+                factor -> {
+                    any.set(true);
+                    appendResponse("- " + factor + "\n");
+                },
+                error -> completeResponse("\n--- Stream ended with error: " + error.getMessage() + " ---"),
+                () -> completeResponse(any.get() ? "--- Stream completed ---" : "No access anomalies detected."));
     }
     private void sendPolicyDriftExplanation() {
         String groupId = driftGroupId.getValue();
@@ -204,12 +265,10 @@ public class MainView extends VerticalLayout {
         try {
             LocalDate baselineDate = LocalDate.parse(baselineDateStr);
             showLoading();
-            clientService.explainPolicyDrift(groupId, baselineDate)
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .subscribe(
-                            drift -> setResponse(objectMapper.writeValueAsString(drift)),
-                            error -> setResponse("Error: " + error.getMessage())
-                    );
+            track("explain-policy-drift", clientService.explainPolicyDrift(groupId, baselineDate).flux(),
+                    drift -> setResponse(toJson(drift)),
+                    error -> setResponse("Error: " + error.getMessage()),
+                    () -> {});
         } catch (Exception e) {
             Notification.show("Invalid date format. Please use YYYY-MM-DD.");
         }
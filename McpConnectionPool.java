@@ -0,0 +1,296 @@
+package com.hackathon.accessguardian.mcp.client.service.pool;
+
+import com.hackathon.accessguardian.mcp.client.service.McpToolsChangedEvent;
+import com.hackathon.accessguardian.mcp.client.service.execution.DownstreamBusyException;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps several MCP SSE sessions open across one or more server URLs and spreads tool calls over them.
+ * Calls go to the healthy session with the fewest outstanding requests; each session accepts at most
+ * maxInFlightPerSession concurrent calls. When all sessions are full, callers queue and are handed the next
+ * released slot in arrival order, up to acquireTimeout. A periodic ping marks broken sessions down, and down sessions
+ * are reconnected with exponential backoff.
+ */
+@Slf4j
+public class McpConnectionPool {
+
+    private final List<PooledMcpSession> sessions = new ArrayList<>();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final String sseEndpoint;
+    private final int maxInFlightPerSession;
+    private final Duration requestTimeout;
+    private final Duration acquireTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final ApplicationEventPublisher eventPublisher;
+    private Disposable healthCheck;
+
+    public McpConnectionPool(List<String> urls, int sessionsPerUrl, String sseEndpoint, int maxInFlightPerSession,
+                             Duration requestTimeout, Duration acquireTimeout, Duration initialBackoff, Duration maxBackoff,
+                             ApplicationEventPublisher eventPublisher) {
+        this.sseEndpoint = sseEndpoint;
+        this.maxInFlightPerSession = maxInFlightPerSession;
+        this.requestTimeout = requestTimeout;
+        this.acquireTimeout = acquireTimeout;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.eventPublisher = eventPublisher;
+        for (String url : urls) {
+            for (int i = 0; i < sessionsPerUrl; i++) {
+                sessions.add(new PooledMcpSession(url + "#" + i, url));
+            }
+        }
+    }
+
+    /**
+     * Opens all sessions and starts the health check. Sessions that fail to connect are retried by the health check.
+     */
+    public void start(Duration healthCheckInterval) {
+        Flux.fromIterable(sessions)
+                .flatMap(this::connect)
+                .blockLast(requestTimeout.multipliedBy(2));
+        log.info("MCP connection pool started: {}/{} sessions up", upCount(), sessions.size());
+        healthCheck = Flux.interval(healthCheckInterval, healthCheckInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> checkHealth())
+                .subscribe();
+    }
+
+    public void stop() {
+        if (healthCheck != null) {
+            healthCheck.dispose();
+        }
+        Flux.fromIterable(sessions)
+                .mapNotNull(PooledMcpSession::client)
+                .flatMap(client -> client.closeGracefully().onErrorResume(e -> Mono.empty()))
+                .blockLast(requestTimeout);
+    }
+
+    public Mono<McpSchema.CallToolResult> callTool(String toolName, Map<String, Object> arguments) {
+        // usingWhen releases the slot on success, error and cancel alike
+        return Mono.usingWhen(acquire(),
+                reservation -> reservation.client()
+                        .callTool(new McpSchema.CallToolRequest(toolName, arguments))
+                        .timeout(requestTimeout)
+                        .doOnError(error -> onCallError(reservation.session(), error)),
+                reservation -> Mono.fromRunnable(reservation::release));
+    }
+
+    public Mono<List<McpSchema.Tool>> listTools() {
+        return Mono.usingWhen(acquire(),
+                        reservation -> reservation.client().listTools().timeout(requestTimeout),
+                        reservation -> Mono.fromRunnable(reservation::release))
+                .map(McpSchema.ListToolsResult::tools);
+    }
+
+    public List<PooledMcpSession> sessions() {
+        return List.copyOf(sessions);
+    }
+
+    /**
+     * A free slot right away if there is one, otherwise a place in the wait queue until a slot is released.
+     * A reservation emitted to a caller that has already gone (cancel or timeout) is discarded and released.
+     */
+    private Mono<Reservation> acquire() {
+        return Mono.defer(() -> {
+            if (upCount() == 0) {
+                return Mono.error(new IllegalStateException("No MCP session is up"));
+            }
+            Reservation reservation = tryReserve();
+            if (reservation != null) {
+                return Mono.just(reservation);
+            }
+            return Mono.<Reservation>create(sink -> {
+                        Waiter waiter = new Waiter(sink);
+                        sink.onDispose(() -> {
+                            waiter.cancel();
+                            waiters.remove(waiter);
+                        });
+                        waiters.add(waiter);
+                        // A slot may have been released between tryReserve and enqueueing
+                        drainWaiters();
+                    })
+                    .timeout(acquireTimeout)
+                    .onErrorMap(TimeoutException.class, e -> new DownstreamBusyException("mcp-pool", acquireTimeout));
+        }).doOnDiscard(Reservation.class, Reservation::release);
+    }
+
+    private Reservation tryReserve() {
+        // Least outstanding requests first; a session may fill up between sort and reserve, so fall through to the next
+        List<PooledMcpSession> candidates = sessions.stream()
+                .filter(session -> session.state() == PooledMcpSession.State.UP)
+                .sorted(Comparator.comparingInt(PooledMcpSession::inFlight))
+                .toList();
+        for (PooledMcpSession session : candidates) {
+            if (session.tryReserve(maxInFlightPerSession)) {
+                // The client is captured with the slot: a concurrent markDown cannot null it under the caller
+                McpAsyncClient client = session.client();
+                if (client != null) {
+                    return new Reservation(session, client);
+                }
+                session.release();
+            }
+        }
+        return null;
+    }
+
+    private void drainWaiters() {
+        while (!waiters.isEmpty()) {
+            Reservation reservation = tryReserve();
+            if (reservation == null) {
+                return;
+            }
+            Waiter waiter;
+            do {
+                waiter = waiters.poll();
+            } while (waiter != null && !waiter.claim());
+            if (waiter == null) {
+                reservation.release();
+                return;
+            }
+            waiter.sink.success(reservation);
+        }
+    }
+
+    private Mono<Void> connect(PooledMcpSession session) {
+        session.connecting();
+        HttpClientSseClientTransport transport = HttpClientSseClientTransport.builder(session.getUrl())
+                .sseEndpoint(sseEndpoint)
+                .build();
+        McpAsyncClient client = McpClient.async(transport)
+                .requestTimeout(requestTimeout)
+                .clientInfo(new McpSchema.Implementation("access-governance-pool", "1.0"))
+                .toolsChangeConsumer(tools -> Mono.fromRunnable(
+                        () -> eventPublisher.publishEvent(new McpToolsChangedEvent(session.getId(), tools.size()))))
+                .build();
+        return client.initialize()
+                .timeout(requestTimeout)
+                .doOnNext(result -> {
+                    session.connected(client);
+                    log.info("MCP session {} connected", session.getId());
+                    drainWaiters();
+                })
+                .onErrorResume(error -> {
+                    client.closeGracefully().subscribe(null, e -> { });
+                    markDown(session, error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> checkHealth() {
+        Instant now = Instant.now();
+        return Flux.fromIterable(sessions)
+                .flatMap(session -> {
+                    if (session.reconnectDue(now)) {
+                        return connect(session);
+                    }
+                    if (session.state() == PooledMcpSession.State.UP && session.client() != null) {
+                        return session.client().ping()
+                                .timeout(requestTimeout)
+                                .then()
+                                .onErrorResume(error -> {
+                                    markDown(session, error);
+                                    return Mono.empty();
+                                });
+                    }
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void onCallError(PooledMcpSession session, Throwable error) {
+        // Only transport-level failures take a session out; tool errors are reported in the CallToolResult
+        if (!(error instanceof McpError)) {
+            markDown(session, error);
+        }
+    }
+
+    private void markDown(PooledMcpSession session, Throwable error) {
+        long factor = 1L << Math.min(session.consecutiveFailures(), 16);
+        Duration backoff = initialBackoff.multipliedBy(factor);
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        McpAsyncClient previous = session.markDown(Instant.now().plus(backoff));
+        if (previous != null) {
+            previous.closeGracefully().subscribe(null, e -> { });
+        }
+        log.warn("MCP session {} down ({}), reconnecting in {}", session.getId(), error.getMessage(), backoff);
+    }
+
+    private long upCount() {
+        return sessions.stream().filter(session -> session.state() == PooledMcpSession.State.UP).count();
+    }
+
+    /**
+     * An in-flight slot on a session together with the client it was taken on. Released at most once;
+     * releasing hands the slot to the next waiter, if any.
+     */
+    private final class Reservation {
+
+        private final PooledMcpSession session;
+        private final McpAsyncClient client;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Reservation(PooledMcpSession session, McpAsyncClient client) {
+            this.session = session;
+            this.client = client;
+        }
+
+        PooledMcpSession session() {
+            return session;
+        }
+
+        McpAsyncClient client() {
+            return client;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                session.release();
+                drainWaiters();
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<Reservation> sink;
+        // Set by whoever gets there first: the releasing thread handing over a slot, or cancel/timeout
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        Waiter(MonoSink<Reservation> sink) {
+            this.sink = sink;
+        }
+
+        boolean claim() {
+            return settled.compareAndSet(false, true);
+        }
+
+        void cancel() {
+            settled.set(true);
+        }
+    }
+}
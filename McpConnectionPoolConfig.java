@@ -0,0 +1,57 @@
+package com.hackathon.accessguardian.mcp.client.config;
+
+import com.hackathon.accessguardian.mcp.client.service.pool.McpConnectionPool;
+import com.hackathon.accessguardian.mcp.client.service.pool.PooledMcpToolCallback;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Replaces Spring AI's single-connection MCP tool provider with one backed by a session pool.
+ * Enable with access-governance.mcp-pool.enabled=true (and spring.ai.mcp.client.enabled=false).
+ */
+@Configuration
+@ConditionalOnProperty(name = "access-governance.mcp-pool.enabled", havingValue = "true")
+@Slf4j
+public class McpConnectionPoolConfig {
+
+    @Bean(destroyMethod = "stop")
+    public McpConnectionPool mcpConnectionPool(@Value("${access-governance.mcp-pool.urls}") List<String> urls,
+                                               @Value("${access-governance.mcp-pool.sse-endpoint:/sse}") String sseEndpoint,
+                                               @Value("${access-governance.mcp-pool.sessions-per-url:4}") int sessionsPerUrl,
+                                               @Value("${access-governance.mcp-pool.max-in-flight-per-session:16}") int maxInFlightPerSession,
+                                               @Value("${access-governance.mcp-pool.request-timeout:PT30S}") Duration requestTimeout,
+                                               @Value("${access-governance.limits.acquire-timeout:PT30S}") Duration acquireTimeout,
+                                               @Value("${access-governance.mcp-pool.reconnect-initial-backoff:PT1S}") Duration initialBackoff,
+                                               @Value("${access-governance.mcp-pool.reconnect-max-backoff:PT1M}") Duration maxBackoff,
+                                               @Value("${access-governance.mcp-pool.health-check-interval:PT15S}") Duration healthCheckInterval,
+                                               ApplicationEventPublisher eventPublisher) {
+        McpConnectionPool pool = new McpConnectionPool(urls, sessionsPerUrl, sseEndpoint, maxInFlightPerSession,
+                requestTimeout, acquireTimeout, initialBackoff, maxBackoff, eventPublisher);
+        pool.start(healthCheckInterval);
+        return pool;
+    }
+
+    /**
+     * Tools are listed through the pool; the McpToolCatalog caches the result, so this runs once per refresh.
+     */
+    @Bean
+    @Primary
+    public ToolCallbackProvider pooledMcpToolCallbackProvider(McpConnectionPool pool) {
+        return () -> pool.listTools()
+                .map(tools -> tools.stream()
+                        .map(tool -> (ToolCallback) new PooledMcpToolCallback(pool, tool))
+                        .toArray(ToolCallback[]::new))
+                .blockOptional()
+                .orElse(new ToolCallback[0]);
+    }
+}
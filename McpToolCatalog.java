@@ -0,0 +1,185 @@
+package com.hackathon.accessguardian.mcp.client.service;
+
+import com.hackathon.accessguardian.mcp.client.service.cache.MemoizingToolCallback;
+import com.hackathon.accessguardian.mcp.client.service.cache.ResponseCacheKey;
+import com.hackathon.accessguardian.mcp.client.service.cache.ToolResultMemoizer;
+import com.hackathon.accessguardian.mcp.client.service.compaction.CompactingToolCallback;
+import com.hackathon.accessguardian.mcp.client.service.compaction.ToolResultCompactor;
+import com.hackathon.accessguardian.mcp.client.service.execution.ConcurrencyLimitedToolCallback;
+import com.hackathon.accessguardian.mcp.client.service.execution.DownstreamConcurrencyLimiter;
+import com.hackathon.accessguardian.mcp.client.service.metrics.LlmMetrics;
+import com.hackathon.accessguardian.mcp.client.service.metrics.MeteredToolCallback;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Single source of the MCP tools offered to the model. Tools are listed once and held in an immutable
+ * snapshot; the snapshot is rebuilt when the server sends tools/list_changed or when it is older than the TTL.
+ * Stale snapshots keep being served while a background refresh runs, so no request waits on tools/list.
+ * Each tool is decorated once per snapshot: read-only tools are memoized, and every actual call to the
+ * server counts against the MCP concurrency limit (cache hits do not take a permit). Large results are compacted
+ * before they are memoized, and every call the model makes is metered, memoized or not.
+ */
+@Component
+@Slf4j
+public class McpToolCatalog {
+
+    /**
+     * Immutable view of the tool catalog. The version is a digest of the tool definitions, so it only
+     * changes when the tools actually change and is stable across restarts.
+     */
+    public record Snapshot(String version, List<ToolCallback> toolCallbacks, Map<String, ToolCallback> byName, Instant loadedAt) {
+        public ToolCallback[] toArray() {
+            return toolCallbacks.toArray(ToolCallback[]::new);
+        }
+    }
+
+    private final ToolCallbackProvider mcpToolCallbackProvider;
+    private final ToolResultMemoizer memoizer;
+    private final ToolResultCompactor compactor;
+    private final DownstreamConcurrencyLimiter concurrencyLimiter;
+    private final LlmMetrics llmMetrics;
+    private final Duration ttl;
+    private final Scheduler scheduler;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    // Set by every change notification, so one arriving during a refresh triggers another load afterwards
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    public McpToolCatalog(ToolCallbackProvider mcpToolCallbackProvider, ToolResultMemoizer memoizer, ToolResultCompactor compactor,
+                          DownstreamConcurrencyLimiter concurrencyLimiter, LlmMetrics llmMetrics, Scheduler governanceScheduler,
+                          @Value("${access-governance.tool-catalog.ttl:PT10M}") Duration ttl) {
+        this.mcpToolCallbackProvider = mcpToolCallbackProvider;
+        this.memoizer = memoizer;
+        this.compactor = compactor;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.llmMetrics = llmMetrics;
+        this.scheduler = governanceScheduler;
+        this.ttl = ttl;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return loadInitial();
+        }
+        if (current.loadedAt().plus(ttl).isBefore(Instant.now())) {
+            refreshAsync("ttl expired");
+        }
+        return current;
+    }
+
+    public ToolCallback[] toolCallbacks() {
+        return snapshot().toArray();
+    }
+
+    public String version() {
+        return snapshot().version();
+    }
+
+    /**
+     * Looks a tool up by its MCP name. Spring AI prefixes MCP tool names with the connection name,
+     * so the unprefixed name is matched as a suffix.
+     */
+    public Optional<ToolCallback> find(String toolName) {
+        Snapshot current = snapshot();
+        ToolCallback exact = current.byName().get(toolName);
+        if (exact != null) {
+            return Optional.of(exact);
+        }
+        return current.toolCallbacks().stream()
+                .filter(callback -> callback.getToolDefinition().name().endsWith("_" + toolName))
+                .findFirst();
+    }
+
+    @EventListener
+    public void onToolsChanged(McpToolsChangedEvent event) {
+        refreshAsync("tools/list_changed from " + event.connectionName());
+    }
+
+    private synchronized Snapshot loadInitial() {
+        if (snapshot == null) {
+            snapshot = load();
+        }
+        return snapshot;
+    }
+
+    private void refreshAsync(String reason) {
+        refreshPending.set(true);
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            try {
+                // The server may have changed its tools again after the running load listed them
+                while (refreshPending.getAndSet(false)) {
+                    refresh(reason);
+                }
+            } finally {
+                refreshing.set(false);
+            }
+            // A notification that arrived between the last check and releasing the flag
+            if (refreshPending.get()) {
+                refreshAsync(reason);
+            }
+        });
+    }
+
+    private void refresh(String reason) {
+        try {
+            Snapshot previous = snapshot;
+            Snapshot next = load();
+            snapshot = next;
+            if (previous == null || !previous.version().equals(next.version())) {
+                log.info("MCP tool catalog changed ({}): version {} with {} tools", reason, next.version(), next.toolCallbacks().size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("MCP tool catalog refresh failed ({}), keeping previous snapshot: {}", reason, e.getMessage());
+        }
+    }
+
+    private Snapshot load() {
+        List<ToolCallback> callbacks = Arrays.stream(mcpToolCallbackProvider.getToolCallbacks())
+                .sorted(Comparator.comparing(callback -> callback.getToolDefinition().name()))
+                .map(this::decorate)
+                .toList();
+        Map<String, ToolCallback> byName = new LinkedHashMap<>();
+        callbacks.forEach(callback -> byName.put(callback.getToolDefinition().name(), callback));
+        String fingerprint = callbacks.stream()
+                .map(ToolCallback::getToolDefinition)
+                .map(McpToolCatalog::fingerprint)
+                .collect(Collectors.joining("\n"));
+        String version = ResponseCacheKey.sha256(fingerprint).substring(0, 16);
+        log.debug("Loaded {} MCP tools, catalog version {}", callbacks.size(), version);
+        return new Snapshot(version, callbacks, Map.copyOf(byName), Instant.now());
+    }
+
+    private ToolCallback decorate(ToolCallback raw) {
+        String name = raw.getToolDefinition().name();
+        ToolCallback limited = new ConcurrencyLimitedToolCallback(raw, concurrencyLimiter);
+        ToolCallback compacted = compactor.appliesTo(name) ? new CompactingToolCallback(limited, compactor) : limited;
+        ToolCallback memoized = memoizer.isCacheable(name) ? new MemoizingToolCallback(compacted, memoizer) : compacted;
+        return new MeteredToolCallback(memoized, llmMetrics);
+    }
+
+    private static String fingerprint(ToolDefinition definition) {
+        return definition.name() + "|" + definition.description() + "|" + definition.inputSchema();
+    }
+}
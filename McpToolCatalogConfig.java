@@ -0,0 +1,35 @@
+package com.hackathon.accessguardian.mcp.client.config;
+
+import com.hackathon.accessguardian.mcp.client.service.McpToolsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.mcp.customizer.McpAsyncClientCustomizer;
+import org.springframework.ai.mcp.customizer.McpSyncClientCustomizer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+/**
+ * Turns MCP tools/list_changed notifications into {@link McpToolsChangedEvent}s for the tool catalog.
+ * Going through the event publisher avoids a dependency cycle between the MCP clients and the catalog.
+ */
+@Configuration
+@Slf4j
+public class McpToolCatalogConfig {
+
+    @Bean
+    public McpAsyncClientCustomizer toolsChangedAsyncCustomizer(ApplicationEventPublisher eventPublisher) {
+        return (name, spec) -> spec.toolsChangeConsumer(tools -> Mono.fromRunnable(() -> {
+            log.debug("MCP connection {} reported {} tools", name, tools.size());
+            eventPublisher.publishEvent(new McpToolsChangedEvent(name, tools.size()));
+        }));
+    }
+
+    @Bean
+    public McpSyncClientCustomizer toolsChangedSyncCustomizer(ApplicationEventPublisher eventPublisher) {
+        return (name, spec) -> spec.toolsChangeConsumer(tools -> {
+            log.debug("MCP connection {} reported {} tools", name, tools.size());
+            eventPublisher.publishEvent(new McpToolsChangedEvent(name, tools.size()));
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.hackathon.accessguardian.mcp.client.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+
+/**
+ * Calls MCP tools directly from Java, without a model round trip, for context the client can fetch up front.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class McpToolInvoker {
+
+    public static final String GET_EMPLOYEE_CONTEXT_GRAPH = "Get_Employee_Context_Graph";
+    public static final String GET_EMPLOYEE_DETAILS = "Get_Employee_Details";
+
+    private final McpToolCatalog toolCatalog;
+    private final Scheduler governanceScheduler;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Invokes the named tool with the given arguments and returns its raw JSON result.
+     * Runs on the governance scheduler; memoization and the MCP concurrency limit come from the catalog's decorators.
+     */
+    public Mono<String> call(String toolName, Map<String, Object> arguments) {
+        return Mono.fromCallable(() -> {
+            ToolCallback callback = toolCatalog.find(toolName)
+                    .orElseThrow(() -> new IllegalStateException("MCP tool not available: " + toolName));
+            log.debug("Calling MCP tool {} with {}", toolName, arguments);
+            return callback.call(toJson(arguments));
+        }).subscribeOn(governanceScheduler);
+    }
+
+    /**
+     * Same as {@link #call} with the result parsed; MCP text content blocks are unwrapped to the JSON they carry.
+     */
+    public Mono<JsonNode> callForJson(String toolName, Map<String, Object> arguments) {
+        return call(toolName, arguments).map(this::parseResult);
+    }
+
+    private JsonNode parseResult(String result) {
+        try {
+            JsonNode root = objectMapper.readTree(result);
+            if (root.isArray() && !root.isEmpty() && "text".equals(root.get(0).path("type").asText())) {
+                return objectMapper.readTree(root.get(0).path("text").asText());
+            }
+            return root;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("MCP tool returned a result that is not JSON", e);
+        }
+    }
+
+    private String toJson(Map<String, Object> arguments) {
+        try {
+            return objectMapper.writeValueAsString(arguments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Tool arguments are not serializable: " + arguments, e);
+        }
+    }
+}
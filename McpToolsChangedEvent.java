@@ -0,0 +1,7 @@
+package com.hackathon.accessguardian.mcp.client.service;
+
+/**
+ * Published when an MCP server notifies the client that its tool list changed.
+ */
+public record McpToolsChangedEvent(String connectionName, int toolCount) {
+}
@@ -0,0 +1,66 @@
+package com.hackathon.accessguardian.mcp.client.service.cache;
+
+import com.hackathon.accessguardian.mcp.client.service.execution.RequestCancellation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.Map;
+
+/**
+ * Decorates an MCP tool so repeated calls with the same arguments are answered from memory:
+ * first from the current request's memo (if the ToolContext carries one), then from the
+ * cross-request cache, with identical concurrent calls coalesced into one.
+ */
+public class MemoizingToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final ToolResultMemoizer memoizer;
+    private final String toolName;
+
+    public MemoizingToolCallback(ToolCallback delegate, ToolResultMemoizer memoizer) {
+        this.delegate = delegate;
+        this.memoizer = memoizer;
+        this.toolName = delegate.getToolDefinition().name();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String call(String toolInput, ToolContext toolContext) {
+        String canonical = memoizer.canonicalize(toolInput);
+        String memoKey = toolName + ':' + canonical;
+        Map<String, String> requestMemo = toolContext == null ? null
+                : (Map<String, String>) toolContext.getContext().get(ToolResultMemoizer.REQUEST_MEMO_KEY);
+        if (requestMemo != null) {
+            String seen = requestMemo.get(memoKey);
+            if (seen != null) {
+                return seen;
+            }
+        }
+        // A cancelled request neither leads nor joins a call shared with other requests
+        RequestCancellation.throwIfCancelled(toolContext, toolName);
+        String result = memoizer.call(toolName, canonical, () -> toolContext == null
+                ? delegate.call(toolInput)
+                : delegate.call(toolInput, toolContext));
+        if (requestMemo != null) {
+            requestMemo.put(memoKey, result);
+        }
+        return result;
+    }
+}
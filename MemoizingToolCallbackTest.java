@@ -0,0 +1,110 @@
+package com.hackathon.accessguardian.mcp.client.service.cache;
+
+import com.hackathon.accessguardian.mcp.client.service.execution.RequestCancellation;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemoizingToolCallbackTest {
+
+    private static final String TOOL = "Get_Employee_Details";
+    private static final String INPUT = "{\"employeeId\":\"emp001\"}";
+
+    @Test
+    void cancellingTheLeadingRequestDoesNotFailRequestsSharingTheCall() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        AtomicInteger serverCalls = new AtomicInteger();
+        ToolCallback server = new BlockingTool(serverCalls, leaderStarted, releaseLeader);
+        MemoizingToolCallback tool = new MemoizingToolCallback(server, new ToolResultMemoizer(Set.of(TOOL), 100, Duration.ZERO));
+
+        RequestCancellation leaderCancellation = new RequestCancellation();
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> tool.call(INPUT, context(leaderCancellation)));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> waiter = new CompletableFuture<>();
+        Thread waiterThread = new Thread(() -> {
+            try {
+                waiter.complete(tool.call(INPUT, context(new RequestCancellation())));
+            } catch (RuntimeException e) {
+                waiter.completeExceptionally(e);
+            }
+        });
+        waiterThread.start();
+        // Parked in join() on the leader's call
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiterThread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(waiterThread.getState()).isEqualTo(Thread.State.WAITING);
+
+        leaderCancellation.cancel();
+        releaseLeader.countDown();
+
+        assertThatThrownBy(leader::join).hasCauseInstanceOf(CancellationException.class);
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("{\"employeeId\":\"emp001\",\"call\":2}");
+        assertThat(serverCalls).hasValue(2);
+    }
+
+    @Test
+    void cancelledRequestDoesNotReachTheServer() {
+        AtomicInteger serverCalls = new AtomicInteger();
+        ToolCallback server = new BlockingTool(serverCalls, new CountDownLatch(1), new CountDownLatch(0));
+        MemoizingToolCallback tool = new MemoizingToolCallback(server, new ToolResultMemoizer(Set.of(TOOL), 100, Duration.ZERO));
+        RequestCancellation cancellation = new RequestCancellation();
+        cancellation.cancel();
+
+        assertThatThrownBy(() -> tool.call(INPUT, context(cancellation))).isInstanceOf(CancellationException.class);
+        assertThat(serverCalls).hasValue(0);
+    }
+
+    private static ToolContext context(RequestCancellation cancellation) {
+        return new ToolContext(Map.of(RequestCancellation.TOOL_CONTEXT_KEY, cancellation));
+    }
+
+    /**
+     * Stands in for the limited MCP tool: the first call waits to be released and then, like
+     * ConcurrencyLimitedToolCallback after getting its permit, checks whether its request was cancelled.
+     */
+    private record BlockingTool(AtomicInteger calls, CountDownLatch started, CountDownLatch release) implements ToolCallback {
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return ToolDefinition.builder().name(TOOL).description("test tool").inputSchema("{}").build();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return call(toolInput, null);
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            int call = calls.incrementAndGet();
+            if (call == 1) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                RequestCancellation.throwIfCancelled(toolContext, TOOL);
+            }
+            return "{\"employeeId\":\"emp001\",\"call\":" + call + "}";
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hackathon.accessguardian.mcp.client.service.metrics;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.time.Duration;
+
+/**
+ * Outermost tool decorator: times each call as the model sees it (memoized answers included) and attributes
+ * the call and the size of its result to the request in the ToolContext.
+ */
+public class MeteredToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final LlmMetrics metrics;
+    private final String toolName;
+
+    public MeteredToolCallback(ToolCallback delegate, LlmMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.toolName = delegate.getToolDefinition().name();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        LlmRequestMetrics request = LlmRequestMetrics.from(toolContext);
+        long start = System.nanoTime();
+        String result = null;
+        boolean success = false;
+        try {
+            result = toolContext == null ? delegate.call(toolInput) : delegate.call(toolInput, toolContext);
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (request != null) {
+                request.onToolCall(toolName, elapsed, result, success);
+            } else {
+                metrics.recordToolCall(toolName, Duration.ofNanos(elapsed), success);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.hackathon.accessguardian.mcp.client.service.sweep;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hackathon.accessguardian.mcp.client.service.McpToolCatalog;
+import com.hackathon.accessguardian.mcp.client.service.McpToolInvoker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enumerates the employees and groups a sweep covers. If the MCP server offers list tools they are used;
+ * otherwise the org chart is crawled breadth-first from seed employees through Get_Employee_Context_Graph
+ * (line manager, direct reports and peers), collecting every group seen in a membership on the way.
+ * Aggregated peer lists only carry a sample of employee ids, so a crawl may miss employees that are reachable
+ * only through a large team; list tools give full coverage.
+ */
+@Component
+@Slf4j
+public class OrgInventory {
+
+    public record Inventory(Set<String> employeeIds, Set<String> groupIds) {}
+
+    private final McpToolCatalog toolCatalog;
+    private final McpToolInvoker toolInvoker;
+    private final String employeeListTool;
+    private final String groupListTool;
+    private final List<String> seedEmployeeIds;
+    private final int maxEmployees;
+    private final int parallelism;
+
+    public OrgInventory(McpToolCatalog toolCatalog, McpToolInvoker toolInvoker,
+                        @Value("${access-governance.sweep.employee-list-tool:List_Employees}") String employeeListTool,
+                        @Value("${access-governance.sweep.group-list-tool:List_Groups}") String groupListTool,
+                        @Value("${access-governance.sweep.seed-employee-ids:}") List<String> seedEmployeeIds,
+                        @Value("${access-governance.sweep.max-employees:50000}") int maxEmployees,
+                        @Value("${access-governance.sweep.parallelism:16}") int parallelism) {
+        this.toolCatalog = toolCatalog;
+        this.toolInvoker = toolInvoker;
+        this.employeeListTool = employeeListTool;
+        this.groupListTool = groupListTool;
+        this.seedEmployeeIds = seedEmployeeIds.stream().map(String::trim).filter(id -> !id.isEmpty()).toList();
+        this.maxEmployees = maxEmployees;
+        this.parallelism = parallelism;
+    }
+
+    public Mono<Inventory> discover() {
+        boolean listTools = toolCatalog.find(employeeListTool).isPresent() && toolCatalog.find(groupListTool).isPresent();
+        Mono<Inventory> inventory = listTools ? list() : crawl();
+        return inventory.doOnNext(found -> log.info("Sweep inventory ({}): {} employees, {} groups",
+                listTools ? "list tools" : "crawl from " + seedEmployeeIds.size() + " seeds",
+                found.employeeIds().size(), found.groupIds().size()));
+    }
+
+    private Mono<Inventory> list() {
+        return Mono.zip(toolInvoker.callForJson(employeeListTool, Map.of()), toolInvoker.callForJson(groupListTool, Map.of()))
+                .map(lists -> new Inventory(ids(lists.getT1(), "employeeId"), ids(lists.getT2(), "groupId")));
+    }
+
+    private Mono<Inventory> crawl() {
+        Set<String> employees = ConcurrentHashMap.newKeySet();
+        Set<String> groups = ConcurrentHashMap.newKeySet();
+        employees.addAll(seedEmployeeIds);
+        return crawlLevel(Set.copyOf(seedEmployeeIds), employees, groups)
+                .then(Mono.fromSupplier(() -> new Inventory(Set.copyOf(employees), Set.copyOf(groups))));
+    }
+
+    private Mono<Void> crawlLevel(Set<String> frontier, Set<String> employees, Set<String> groups) {
+        if (frontier.isEmpty()) {
+            return Mono.empty();
+        }
+        Set<String> next = ConcurrentHashMap.newKeySet();
+        return Flux.fromIterable(frontier)
+                .flatMap(employeeId -> toolInvoker.callForJson(McpToolInvoker.GET_EMPLOYEE_CONTEXT_GRAPH, Map.of("employeeId", employeeId))
+                        .onErrorResume(error -> {
+                            log.warn("Sweep crawl could not read the context graph of {}: {}", employeeId, error.getMessage());
+                            return Mono.empty();
+                        }), parallelism)
+                .doOnNext(graph -> {
+                    for (String neighbour : neighbours(graph, groups)) {
+                        if (employees.size() < maxEmployees && employees.add(neighbour)) {
+                            next.add(neighbour);
+                        }
+                    }
+                })
+                .then(Mono.defer(() -> crawlLevel(next, employees, groups)));
+    }
+
+    // Employees linked from a context graph; groups found in any membership or histogram are added to {@code groups}
+    private static Set<String> neighbours(JsonNode graph, Set<String> groups) {
+        Set<String> neighbours = new HashSet<>();
+        collectMemberships(graph.path("employeeDetails"), groups);
+        JsonNode manager = graph.path("lineManagerDetails");
+        if (manager.hasNonNull("employeeId")) {
+            neighbours.add(manager.get("employeeId").asText());
+            collectMemberships(manager, groups);
+        }
+        for (String field : List.of("directReports", "peerEmployeesInSameRoleAndDept")) {
+            JsonNode population = graph.path(field);
+            if (population.has("groupFrequencies")) {
+                population.path("groupFrequencies").forEach(frequency -> groups.add(frequency.path("groupId").asText()));
+                population.path("sampleEmployeeIds").forEach(id -> neighbours.add(id.asText()));
+            } else {
+                for (JsonNode employee : population) {
+                    neighbours.add(employee.path("employeeId").asText());
+                    collectMemberships(employee, groups);
+                }
+            }
+        }
+        neighbours.remove("");
+        return neighbours;
+    }
+
+    private static void collectMemberships(JsonNode employee, Set<String> groups) {
+        for (JsonNode membership : employee.path("currentGroupMemberships")) {
+            groups.add(membership.isObject() ? membership.path("groupId").asText() : membership.asText());
+        }
+    }
+
+    // A list of ids, of objects carrying the id field, or an object wrapping either in its first array field
+    private static Set<String> ids(JsonNode list, String idField) {
+        if (list.isObject()) {
+            for (JsonNode value : list) {
+                if (value.isArray()) {
+                    return ids(value, idField);
+                }
+            }
+        }
+        Set<String> ids = new HashSet<>();
+        for (JsonNode entry : list) {
+            ids.add(entry.isObject() ? entry.path(idField).asText() : entry.asText());
+        }
+        ids.remove("");
+        return ids;
+    }
+}
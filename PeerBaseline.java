@@ -0,0 +1,70 @@
+package com.hackathon.accessguardian.mcp.client.service.baseline;
+
+import com.hackathon.accessguardian.mcp.client.service.model.AccessRecommendation;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ranked candidate groups for one employee, computed from their peers, line manager and wider team.
+ */
+public record PeerBaseline(String employeeId, int peerCount, int teamCount, List<Candidate> candidates) {
+
+    /**
+     * @param peerShare     fraction of peers in the same role and department holding the group
+     * @param managerHolds  whether the line manager holds the group
+     * @param teamShare     fraction of the wider team (manager's direct reports and peers) holding the group
+     * @param alreadyHeld   whether the employee already holds the group
+     */
+    public record Candidate(String groupId, String groupName, double score, int peerHolders, double peerShare,
+                            boolean managerHolds, double teamShare, boolean alreadyHeld, String action) {
+
+        String justification(int peerCount) {
+            StringBuilder text = new StringBuilder();
+            if (peerCount > 0) {
+                text.append(String.format(Locale.ROOT, "Held by %d of %d peers (%.0f%%)", peerHolders, peerCount, peerShare * 100));
+            } else {
+                text.append("No peers in the same role and department");
+            }
+            text.append(managerHolds ? " and by the line manager" : ", not held by the line manager");
+            if (alreadyHeld && "REVIEW".equals(action)) {
+                text.append("; already held by the employee but unusual for the role");
+            }
+            return text.append('.').toString();
+        }
+    }
+
+    public boolean isEmpty() {
+        return candidates.isEmpty();
+    }
+
+    /**
+     * The shortlist as a recommendation with rule-based justifications, used by fast mode.
+     */
+    public AccessRecommendation toRecommendation(String employeeName) {
+        List<AccessRecommendation.RecommendedGroup> groups = candidates.stream()
+                .map(candidate -> new AccessRecommendation.RecommendedGroup(candidate.groupId(), candidate.groupName(),
+                        candidate.justification(peerCount), candidate.action()))
+                .toList();
+        String overall = isEmpty()
+                ? "No peer baseline available for this employee; request a full (LLM) recommendation instead."
+                : "Deterministic baseline from " + peerCount + " peers and a team of " + teamCount
+                  + "; groups ranked by peer share, line manager overlap and team share.";
+        return new AccessRecommendation(employeeId, employeeName, "New_Joiner_Groups", groups, overall);
+    }
+
+    /**
+     * One compact line per candidate for the justification prompt.
+     */
+    public String toPromptText() {
+        StringBuilder text = new StringBuilder();
+        text.append("peers=").append(peerCount).append(", team=").append(teamCount).append('\n');
+        for (Candidate candidate : candidates) {
+            text.append(String.format(Locale.ROOT, "%s | %s | score %.2f | peer share %.2f (%d) | manager %s | team share %.2f%s | %s%n",
+                    candidate.groupId(), candidate.groupName() == null ? "" : candidate.groupName(), candidate.score(),
+                    candidate.peerShare(), candidate.peerHolders(), candidate.managerHolds() ? "yes" : "no",
+                    candidate.teamShare(), candidate.alreadyHeld() ? " | already held" : "", candidate.action()));
+        }
+        return text.toString();
+    }
+}
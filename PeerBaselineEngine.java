@@ -0,0 +1,128 @@
+package com.hackathon.accessguardian.mcp.client.service.baseline;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Computes a least-privilege baseline from an employee context graph (Get_Employee_Context_Graph) in plain Java:
+ * how many peers in the same role and department hold each group, whether the line manager holds it and how common
+ * it is in the wider team. Accepts both raw employee lists and the group-frequency histograms produced by
+ * tool-result compaction.
+ */
+@Component
+public class PeerBaselineEngine {
+
+    private static final int PEERS = 0;
+    private static final int TEAM = 1;
+    private static final int MANAGER = 2;
+    private static final int EMPLOYEE = 3;
+
+    private final double peerWeight;
+    private final double managerWeight;
+    private final double teamWeight;
+    private final double addThreshold;
+    private final double reviewThreshold;
+    private final double outlierShare;
+    private final int maxCandidates;
+
+    public PeerBaselineEngine(@Value("${access-governance.baseline.peer-weight:0.6}") double peerWeight,
+                              @Value("${access-governance.baseline.manager-weight:0.25}") double managerWeight,
+                              @Value("${access-governance.baseline.team-weight:0.15}") double teamWeight,
+                              @Value("${access-governance.baseline.add-threshold:0.5}") double addThreshold,
+                              @Value("${access-governance.baseline.review-threshold:0.2}") double reviewThreshold,
+                              @Value("${access-governance.baseline.outlier-share:0.1}") double outlierShare,
+                              @Value("${access-governance.baseline.max-candidates:25}") int maxCandidates) {
+        this.peerWeight = peerWeight;
+        this.managerWeight = managerWeight;
+        this.teamWeight = teamWeight;
+        this.addThreshold = addThreshold;
+        this.reviewThreshold = reviewThreshold;
+        this.outlierShare = outlierShare;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * @param graph the employee's context graph
+     */
+    public PeerBaseline compute(String employeeId, JsonNode graph) {
+        GroupIndex index = new GroupIndex(4);
+        int peerCount = countPopulation(index, graph.path("peerEmployeesInSameRoleAndDept"), employeeId, PEERS, TEAM);
+        JsonNode manager = graph.path("lineManagerDetails");
+        addMemberships(index, manager, MANAGER);
+        addMemberships(index, manager, TEAM);
+        addMemberships(index, graph.path("employeeDetails"), EMPLOYEE);
+        // Direct reports of the employee are their own team; for a joiner this list is normally empty
+        int teamCount = peerCount + (manager.isObject() ? 1 : 0)
+                + countPopulation(index, graph.path("directReports"), employeeId, TEAM);
+
+        List<PeerBaseline.Candidate> candidates = new ArrayList<>();
+        for (int group = 0; group < index.size(); group++) {
+            double peerShare = peerCount == 0 ? 0 : (double) index.count(PEERS, group) / peerCount;
+            double teamShare = teamCount == 0 ? 0 : (double) index.count(TEAM, group) / teamCount;
+            boolean managerHolds = index.count(MANAGER, group) > 0;
+            boolean alreadyHeld = index.count(EMPLOYEE, group) > 0;
+            double score = peerWeight * peerShare + managerWeight * (managerHolds ? 1 : 0) + teamWeight * teamShare;
+            String action = action(score, peerShare, peerCount, alreadyHeld);
+            if (action != null) {
+                candidates.add(new PeerBaseline.Candidate(index.groupId(group), index.groupName(group), score,
+                        index.count(PEERS, group), peerShare, managerHolds, teamShare, alreadyHeld, action));
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(PeerBaseline.Candidate::score).reversed()
+                .thenComparing(PeerBaseline.Candidate::groupId));
+        return new PeerBaseline(employeeId, peerCount, teamCount,
+                List.copyOf(candidates.subList(0, Math.min(maxCandidates, candidates.size()))));
+    }
+
+    private String action(double score, double peerShare, int peerCount, boolean alreadyHeld) {
+        if (alreadyHeld && peerCount > 0 && peerShare < outlierShare) {
+            return "REVIEW"; // existing access that few peers have
+        }
+        if (score >= addThreshold) {
+            return "ADD";
+        }
+        return score >= reviewThreshold ? "REVIEW" : null;
+    }
+
+    /**
+     * Adds a list of employees, or a compacted histogram of one, to the given populations; returns its size.
+     */
+    private static int countPopulation(GroupIndex index, JsonNode population, String excludedEmployeeId, int... targets) {
+        if (population.has("groupFrequencies")) {
+            for (JsonNode frequency : population.path("groupFrequencies")) {
+                int group = index.id(frequency.path("groupId").asText(), textOrNull(frequency, "groupName"));
+                for (int target : targets) {
+                    index.add(target, group, frequency.path("holders").asInt());
+                }
+            }
+            return population.path("count").asInt();
+        }
+        int size = 0;
+        for (JsonNode employee : population) {
+            if (excludedEmployeeId.equals(employee.path("employeeId").asText())) {
+                continue;
+            }
+            size++;
+            for (int target : targets) {
+                addMemberships(index, employee, target);
+            }
+        }
+        return size;
+    }
+
+    private static void addMemberships(GroupIndex index, JsonNode employee, int target) {
+        for (JsonNode membership : employee.path("currentGroupMemberships")) {
+            String groupId = membership.isObject() ? membership.path("groupId").asText() : membership.asText();
+            index.add(target, index.id(groupId, membership.isObject() ? textOrNull(membership, "groupName") : null), 1);
+        }
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+}
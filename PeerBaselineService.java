@@ -0,0 +1,29 @@
+package com.hackathon.accessguardian.mcp.client.service.baseline;
+
+import com.hackathon.accessguardian.mcp.client.service.McpToolInvoker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Fetches an employee's context graph directly from MCP (no model round trip; memoized and compacted by the
+ * tool catalog) and runs the {@link PeerBaselineEngine} on it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PeerBaselineService {
+    private final McpToolInvoker toolInvoker;
+    private final PeerBaselineEngine engine;
+
+    public Mono<PeerBaseline> baseline(String employeeId) {
+        long start = System.nanoTime();
+        return toolInvoker.callForJson(McpToolInvoker.GET_EMPLOYEE_CONTEXT_GRAPH, Map.of("employeeId", employeeId))
+                .map(graph -> engine.compute(employeeId, graph))
+                .doOnNext(baseline -> log.debug("Peer baseline for {}: {} candidates from {} peers in {} ms", employeeId,
+                        baseline.candidates().size(), baseline.peerCount(), (System.nanoTime() - start) / 1_000_000));
+    }
+}
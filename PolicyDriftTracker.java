@@ -0,0 +1,173 @@
+package com.hackathon.accessguardian.mcp.client.service.drift;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hackathon.accessguardian.mcp.client.service.McpToolInvoker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Keeps {@link GroupDriftSnapshot}s per group and baseline date and brings them up to date incrementally:
+ * Detect_Policy_Drift is asked only for the changes since the latest snapshot's day, which are composed with the
+ * snapshot instead of recomputing everything from the baseline. A full recompute happens on the first check and
+ * when the latest snapshot is older than {@code full-recompute-after}; it also corrects the one case composition
+ * cannot see, a change made on a snapshot's own day after the snapshot was taken (the server is day-granular).
+ * Repository calls are blocking and run on the governance scheduler.
+ */
+@Service
+@Slf4j
+public class PolicyDriftTracker {
+
+    public static final String DETECT_POLICY_DRIFT = "Detect_Policy_Drift";
+    public static final String GET_GROUP_DETAILS = "Get_Group_Details";
+
+    private final GroupDriftSnapshotRepository repository;
+    private final McpToolInvoker toolInvoker;
+    private final Scheduler governanceScheduler;
+    private final Duration refreshInterval;
+    private final Period fullRecomputeAfter;
+    private final int snapshotsKept;
+
+    public PolicyDriftTracker(GroupDriftSnapshotRepository repository, McpToolInvoker toolInvoker, Scheduler governanceScheduler,
+                              @Value("${access-governance.drift.refresh-interval:PT15M}") Duration refreshInterval,
+                              @Value("${access-governance.drift.full-recompute-after:P7D}") Period fullRecomputeAfter,
+                              @Value("${access-governance.drift.snapshots-kept:5}") int snapshotsKept) {
+        this.repository = repository;
+        this.toolInvoker = toolInvoker;
+        this.governanceScheduler = governanceScheduler;
+        this.refreshInterval = refreshInterval;
+        this.fullRecomputeAfter = fullRecomputeAfter;
+        this.snapshotsKept = snapshotsKept;
+    }
+
+    /**
+     * Brings the group's drift since {@code baselineDate} up to date and returns it with the change since the last check.
+     * A snapshot younger than the refresh interval is returned without calling the server, with the change that
+     * produced it.
+     */
+    public Mono<DriftDelta> refresh(String groupId, LocalDate baselineDate) {
+        return blocking(() -> repository.findByGroupIdAndBaselineDateOrderByTakenAtDesc(groupId, baselineDate))
+                .flatMap(history -> {
+                    GroupDriftSnapshot latest = history.isEmpty() ? null : history.get(0);
+                    if (latest != null && latest.getTakenAt().plus(refreshInterval).isAfter(Instant.now())) {
+                        return Mono.just(latestDelta(history));
+                    }
+                    if (latest == null || latest.getTakenOn().plus(fullRecomputeAfter).isBefore(LocalDate.now())) {
+                        return recompute(groupId, baselineDate, latest);
+                    }
+                    return advance(latest);
+                });
+    }
+
+    /**
+     * The latest stored snapshot and the change from the one before it, without calling the server;
+     * empty if the group has not been checked against this baseline yet.
+     */
+    public Mono<DriftDelta> latest(String groupId, LocalDate baselineDate) {
+        return blocking(() -> repository.findByGroupIdAndBaselineDateOrderByTakenAtDesc(groupId, baselineDate))
+                .filter(history -> !history.isEmpty())
+                .map(PolicyDriftTracker::latestDelta);
+    }
+
+    private static DriftDelta latestDelta(List<GroupDriftSnapshot> history) {
+        return DriftDelta.between(history.size() > 1 ? history.get(1) : null, history.get(0));
+    }
+
+    /**
+     * Stores the model's texts on the snapshot, so an unchanged drift is not explained again.
+     */
+    public Mono<Void> saveExplanation(GroupDriftSnapshot snapshot, String explanation, String impactAssessment) {
+        return blocking(() -> {
+            snapshot.setExplanation(explanation);
+            snapshot.setImpactAssessment(impactAssessment);
+            return repository.save(snapshot);
+        }).then();
+    }
+
+    private Mono<DriftDelta> recompute(String groupId, LocalDate baselineDate, GroupDriftSnapshot previous) {
+        log.debug("Full drift recompute for group {} since {}", groupId, baselineDate);
+        Mono<String> groupName = previous != null && previous.getGroupName() != null
+                ? Mono.just(previous.getGroupName())
+                : toolInvoker.callForJson(GET_GROUP_DETAILS, Map.of("groupId", groupId))
+                        .map(details -> details.path("groupName").asText(groupId))
+                        .onErrorReturn(groupId);
+        return Mono.zip(detectDrift(groupId, baselineDate), groupName)
+                .flatMap(drift -> store(previous, snapshot(groupId, drift.getT2(), baselineDate, false,
+                        members(drift.getT1().path("addedMembers")), members(drift.getT1().path("removedMembers")))));
+    }
+
+    private Mono<DriftDelta> advance(GroupDriftSnapshot latest) {
+        log.debug("Incremental drift for group {} since {} (snapshot of {})", latest.getGroupId(), latest.getBaselineDate(), latest.getTakenOn());
+        return detectDrift(latest.getGroupId(), latest.getTakenOn()).flatMap(sinceSnapshot -> {
+            Set<String> joined = members(sinceSnapshot.path("addedMembers"));
+            Set<String> left = members(sinceSnapshot.path("removedMembers"));
+            // added(B..now) = (added(B..T) - left(T..now)) + (joined(T..now) - removed(B..T)), and symmetrically for removed
+            Set<String> added = DriftDelta.minus(latest.getAddedMembers(), left);
+            added.addAll(DriftDelta.minus(joined, latest.getRemovedMembers()));
+            Set<String> removed = DriftDelta.minus(latest.getRemovedMembers(), joined);
+            removed.addAll(DriftDelta.minus(left, latest.getAddedMembers()));
+            return store(latest, snapshot(latest.getGroupId(), latest.getGroupName(), latest.getBaselineDate(), true, added, removed));
+        });
+    }
+
+    private Mono<DriftDelta> store(GroupDriftSnapshot previous, GroupDriftSnapshot current) {
+        DriftDelta delta = DriftDelta.between(previous, current);
+        if (!delta.changed()) {
+            current.setExplanation(previous.getExplanation());
+            current.setImpactAssessment(previous.getImpactAssessment());
+        }
+        return blocking(() -> {
+            GroupDriftSnapshot saved = repository.save(current);
+            List<GroupDriftSnapshot> history = repository.findByGroupIdAndBaselineDateOrderByTakenAtDesc(current.getGroupId(),
+                    current.getBaselineDate());
+            if (history.size() > snapshotsKept) {
+                repository.deleteAll(history.subList(snapshotsKept, history.size()));
+            }
+            return saved;
+        }).map(saved -> new DriftDelta(saved, previous, delta.newlyAdded(), delta.noLongerAdded(), delta.newlyRemoved(),
+                delta.noLongerRemoved()));
+    }
+
+    private Mono<JsonNode> detectDrift(String groupId, LocalDate since) {
+        return toolInvoker.callForJson(DETECT_POLICY_DRIFT, Map.of("groupId", groupId, "baselineDate", since.toString()));
+    }
+
+    private static GroupDriftSnapshot snapshot(String groupId, String groupName, LocalDate baselineDate, boolean incremental,
+                                               Set<String> added, Set<String> removed) {
+        GroupDriftSnapshot snapshot = new GroupDriftSnapshot();
+        snapshot.setGroupId(groupId);
+        snapshot.setGroupName(groupName);
+        snapshot.setBaselineDate(baselineDate);
+        snapshot.setTakenOn(LocalDate.now());
+        snapshot.setTakenAt(Instant.now());
+        snapshot.setIncremental(incremental);
+        snapshot.setAddedMembers(added);
+        snapshot.setRemovedMembers(removed);
+        return snapshot;
+    }
+
+    // Members come as employee ids or as employee objects, depending on the server version
+    private static Set<String> members(JsonNode list) {
+        Set<String> members = new HashSet<>();
+        for (JsonNode member : list) {
+            members.add(member.isObject() ? member.path("employeeId").asText() : member.asText());
+        }
+        return members;
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(governanceScheduler);
+    }
+}
@@ -0,0 +1,95 @@
+package com.hackathon.accessguardian.mcp.client.service.pool;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One MCP session in the pool plus the bookkeeping the router needs: outstanding requests,
+ * health state and the reconnect schedule.
+ */
+public class PooledMcpSession {
+
+    public enum State { CONNECTING, UP, DOWN }
+
+    @Getter
+    private final String id;
+    @Getter
+    private final String url;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile McpAsyncClient client;
+    private volatile State state = State.CONNECTING;
+    private volatile int consecutiveFailures;
+    private volatile Instant nextReconnectAt = Instant.EPOCH;
+
+    public PooledMcpSession(String id, String url) {
+        this.id = id;
+        this.url = url;
+    }
+
+    /**
+     * Reserves an in-flight slot if the session is up and below its limit.
+     */
+    boolean tryReserve(int maxInFlight) {
+        if (state != State.UP) {
+            return false;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public State state() {
+        return state;
+    }
+
+    McpAsyncClient client() {
+        return client;
+    }
+
+    void connected(McpAsyncClient client) {
+        this.client = client;
+        this.consecutiveFailures = 0;
+        this.state = State.UP;
+    }
+
+    /**
+     * Marks the session down and returns the client that should be closed, if any.
+     */
+    McpAsyncClient markDown(Instant nextReconnectAt) {
+        McpAsyncClient previous = this.client;
+        this.client = null;
+        this.consecutiveFailures++;
+        this.nextReconnectAt = nextReconnectAt;
+        this.state = State.DOWN;
+        return previous;
+    }
+
+    void connecting() {
+        this.state = State.CONNECTING;
+    }
+
+    int consecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    boolean reconnectDue(Instant now) {
+        return state == State.DOWN && !now.isBefore(nextReconnectAt);
+    }
+}
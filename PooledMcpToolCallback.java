@@ -0,0 +1,57 @@
+package com.hackathon.accessguardian.mcp.client.service.pool;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.DefaultToolDefinition;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.Map;
+
+/**
+ * MCP tool exposed to Spring AI whose calls are routed through the {@link McpConnectionPool}.
+ * The result is rendered the same way as Spring AI's own MCP callbacks (the JSON of the content list).
+ */
+public class PooledMcpToolCallback implements ToolCallback {
+
+    private final McpConnectionPool pool;
+    private final McpSchema.Tool tool;
+    private final ToolDefinition toolDefinition;
+
+    public PooledMcpToolCallback(McpConnectionPool pool, McpSchema.Tool tool) {
+        this.pool = pool;
+        this.tool = tool;
+        this.toolDefinition = DefaultToolDefinition.builder()
+                .name(tool.name())
+                .description(tool.description())
+                .inputSchema(ModelOptionsUtils.toJsonString(tool.inputSchema()))
+                .build();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return toolDefinition;
+    }
+
+    /**
+     * The pool needs nothing from the context; overridden because the interface default rejects a non-empty one.
+     */
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return call(toolInput);
+    }
+
+    @Override
+    public String call(String toolInput) {
+        Map<String, Object> arguments = ModelOptionsUtils.jsonToMap(toolInput);
+        McpSchema.CallToolResult result = pool.callTool(tool.name(), arguments).block();
+        if (result == null) {
+            throw new IllegalStateException("No result from MCP tool " + tool.name());
+        }
+        if (Boolean.TRUE.equals(result.isError())) {
+            throw new IllegalStateException("MCP tool " + tool.name() + " failed: " + ModelOptionsUtils.toJsonString(result.content()));
+        }
+        return ModelOptionsUtils.toJsonString(result.content());
+    }
+}
@@ -0,0 +1,210 @@
+package com.hackathon.accessguardian.mcp.client.service.prompt;
+
+import com.hackathon.accessguardian.mcp.client.service.cache.ResponseCacheKey;
+import com.hackathon.accessguardian.mcp.client.service.model.AccessRecommendation;
+import com.hackathon.accessguardian.mcp.client.service.model.AnomalyExplanation;
+import com.hackathon.accessguardian.mcp.client.service.model.PolicyDriftExplanation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.parser.BeanOutputParser;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles every prompt the client sends (recommendation, anomaly, drift, general chat) once at startup,
+ * including the JSON schema of the expected output. Requests only bind their user variables.
+ */
+@Component
+@Slf4j
+public class PromptRegistry {
+
+    public static final String RECOMMEND_ACCESS_SYSTEM_TEMPLATE = """
+You are an expert Access Governance Advisor. Your goal is to provide precise and justified group membership recommendations,
+strictly adhering to the principle of least privilege. You must use the provided tools to gather all necessary context
+about the employee, their line manager, direct reports, and peers.
+Follow these steps for your reasoning:
+1. Use the 'Get_Employee_Context_Graph' tool for the new joiner's employee ID to understand their organizational context.
+2. Analyze the 'employeeDetails', 'lineManagerDetails', 'directReports', and 'peerEmployeesInSameRoleAndDept' from the context graph.
+3. Pay close attention to the 'currentGroupMemberships' of the line manager and peers.
+4. Based on the new joiner's department, role, and the access patterns of their manager and peers,
+suggest a minimal set of group memberships.
+5. For each recommended group, provide a clear justification based on the employee's role, department, or peer/manager access.
+6. If an employee already has access that seems excessive or unusual compared to peers, highlight it for review.
+7. Your final output MUST be a JSON object conforming to the provided schema. Do NOT include any conversational text outside the JSON.
+{format}
+""";
+    public static final String RECOMMEND_ACCESS_USER_TEMPLATE = """
+I need group membership recommendations for a new employee.
+Employee ID: {employeeId}
+Name: {employeeName}
+Department: {department}
+Role: {role}
+Line Manager ID: {lineManagerId}
+""";
+    public static final String LINE_MANAGER_CONTEXT_USER_TEMPLATE = RECOMMEND_ACCESS_USER_TEMPLATE + """
+The line manager's context graph (including their direct reports, i.e. this employee's peers) was already retrieved.
+Do NOT call 'Get_Employee_Context_Graph' for the line manager again:
+{lineManagerContext}
+""";
+    public static final String RECOMMEND_FROM_BASELINE_SYSTEM_TEMPLATE = """
+You are an expert Access Governance Advisor. The candidate groups for a new joiner have already been computed
+deterministically from the access of their peers (same role and department), line manager and wider team.
+Your only task is to write the justifications. Follow these rules:
+1. Do NOT call any tools; everything you need is in the shortlist.
+2. Only use groups from the shortlist, in the same order. Do NOT add groups.
+3. Keep each group's action, except that you may downgrade ADD to REVIEW when the evidence is weak.
+4. Justify each group in one or two sentences from its peer share, line manager overlap and team share.
+5. Your final output MUST be a JSON object conforming to the provided schema. Do NOT include any conversational text outside the JSON.
+{format}
+""";
+    public static final String RECOMMEND_FROM_BASELINE_USER_TEMPLATE = RECOMMEND_ACCESS_USER_TEMPLATE + """
+Shortlist (groupId | groupName | score | peer share (holders) | manager holds | team share | action):
+{shortlist}
+""";
+    public static final String EXPLAIN_ANOMALY_SYSTEM_TEMPLATE = """
+You are an AI Security Analyst. Your task is to explain detected access anomalies in clear, concise, and non-technical language.
+You must use the 'Detect_Access_Anomalies' tool to get the anomaly details and 'Get_Employee_Details' for employee context.
+Follow these steps for your reasoning:
+1. Use the 'Detect_Access_Anomalies' tool for the given employee ID.
+2. If anomalies are found, use 'Get_Employee_Details' to get the employee's basic information.
+3. For each anomaly, provide a plain language explanation of why it's unusual or risky.
+4. List the key contributing factors that led to the anomaly detection.
+5. Suggest a clear, actionable next step for IT or HR.
+6. Your final output MUST be a JSON object conforming to the provided schema. Do NOT include any conversational text outside the JSON.
+{format}
+""";
+    public static final String EXPLAIN_ANOMALY_USER_TEMPLATE = "Explain any access anomalies detected for employee ID: {employeeId}.";
+    public static final String EXPLAIN_ANOMALY_FINDINGS_SYSTEM_TEMPLATE = """
+You are an AI Security Analyst. Your task is to explain detected access anomalies in clear, concise, and non-technical language.
+The output of 'Detect_Access_Anomalies' and the employee's details have already been retrieved and are given below.
+Do NOT call any tools. Follow these steps for your reasoning:
+1. For each anomaly, provide a plain language explanation of why it's unusual or risky.
+2. List the key contributing factors that led to the anomaly detection.
+3. Suggest a clear, actionable next step for IT or HR.
+4. Your final output MUST be a JSON object conforming to the provided schema. Do NOT include any conversational text outside the JSON.
+{format}
+""";
+    public static final String EXPLAIN_ANOMALY_FINDINGS_USER_TEMPLATE = EXPLAIN_ANOMALY_USER_TEMPLATE + """
+
+Detected anomalies:
+{findings}
+Employee details:
+{employeeDetails}
+""";
+    public static final String EXPLAIN_POLICY_DRIFT_SYSTEM_TEMPLATE = """
+You are an AI Compliance Oﬃcer. Your role is to analyze and explain policy drift for access groups.
+You must use the 'Detect_Policy_Drift' tool to get the drift report and 'Get_Group_Details' for group context.
+Follow these steps for your reasoning:
+1. Use the 'Detect_Policy_Drift' tool for the given group ID and baseline date.
+2. Use 'Get_Group_Details' to understand the group's purpose.
+3. Explain in plain language what "policy drift" means for this specific group.
+4. Clearly list who was added and who was removed since the baseline date.
+5. Provide a brief assessment of the potential impact or risk of this drift.
+6. Your final output MUST be a JSON object conforming to the provided schema. Do NOT include any conversational text outside the JSON.
+{format}
+""";
+    public static final String EXPLAIN_POLICY_DRIFT_USER_TEMPLATE = """
+Explain the policy drift for group ID: {groupId} since {baselineDate}.
+""";
+    public static final String EXPLAIN_POLICY_DRIFT_DELTA_SYSTEM_TEMPLATE = """
+You are an AI Compliance Oﬃcer. Your role is to analyze and explain policy drift for access groups.
+The drift has already been computed and is summarized below: how many members were added and removed since the baseline
+date with a sample of each, what changed since the previous check, and the previous assessment if there is one.
+Do NOT call any tools. Follow these steps for your reasoning:
+1. Explain in plain language what "policy drift" means for this specific group.
+2. Summarize who was added and who was removed since the baseline date from the counts and samples.
+3. If there is a previous assessment, update it with the changes since the previous check rather than starting over.
+4. Provide a brief assessment of the potential impact or risk of this drift.
+5. Leave addedMembers and removedMembers empty; the full lists are attached to your answer separately.
+6. Your final output MUST be a JSON object conforming to the provided schema. Do NOT include any conversational text outside the JSON.
+{format}
+""";
+    public static final String EXPLAIN_POLICY_DRIFT_DELTA_USER_TEMPLATE = """
+Explain the policy drift for group ID: {groupId} ({groupName}) since {baselineDate}.
+Members added since the baseline: {addedCount}, including {addedSample}
+Members removed since the baseline: {removedCount}, including {removedSample}
+Changes since the previous check ({previousCheck}):
+- newly added: {newlyAdded}
+- additions reverted: {noLongerAdded}
+- newly removed: {newlyRemoved}
+- removals reverted: {noLongerRemoved}
+Previous explanation: {previousExplanation}
+Previous impact assessment: {previousImpact}
+""";
+    public static final String GENERAL_CHAT_SYSTEM_TEMPLATE = """
+You are a helpful AI assistant for access governance. You can answer questions about employees, groups,
+and access patterns by using the available tools. If you need more information, ask clarifying questions.
+Be concise and helpful.
+""";
+
+    private final CompiledPrompt<AccessRecommendation> recommendAccess;
+    private final CompiledPrompt<AccessRecommendation> recommendAccessWithManagerContext;
+    private final CompiledPrompt<AccessRecommendation> recommendAccessFromBaseline;
+    private final CompiledPrompt<AnomalyExplanation> explainAnomaly;
+    private final CompiledPrompt<AnomalyExplanation> explainAnomalyFindings;
+    private final CompiledPrompt<PolicyDriftExplanation> explainPolicyDrift;
+    private final CompiledPrompt<PolicyDriftExplanation> explainPolicyDriftDelta;
+    private final CompiledPrompt<String> generalChat;
+
+    public PromptRegistry() {
+        this.recommendAccess = compile("recommendAccess", RECOMMEND_ACCESS_SYSTEM_TEMPLATE, RECOMMEND_ACCESS_USER_TEMPLATE,
+                new BeanOutputParser<>(AccessRecommendation.class));
+        // Same system message instance and hash, so bulk and single recommendations share cache entries and the provider prefix
+        this.recommendAccessWithManagerContext = new CompiledPrompt<>(recommendAccess.operation(), recommendAccess.systemMessage(),
+                recommendAccess.systemPromptHash(), new CompiledTemplate(LINE_MANAGER_CONTEXT_USER_TEMPLATE), recommendAccess.parser());
+        this.recommendAccessFromBaseline = compile("recommendAccessFromBaseline", RECOMMEND_FROM_BASELINE_SYSTEM_TEMPLATE,
+                RECOMMEND_FROM_BASELINE_USER_TEMPLATE, recommendAccess.parser());
+        this.explainAnomaly = compile("explainAnomaly", EXPLAIN_ANOMALY_SYSTEM_TEMPLATE, EXPLAIN_ANOMALY_USER_TEMPLATE,
+                new BeanOutputParser<>(AnomalyExplanation.class));
+        this.explainAnomalyFindings = compile("explainAnomalyFindings", EXPLAIN_ANOMALY_FINDINGS_SYSTEM_TEMPLATE,
+                EXPLAIN_ANOMALY_FINDINGS_USER_TEMPLATE, explainAnomaly.parser());
+        this.explainPolicyDrift = compile("explainPolicyDrift", EXPLAIN_POLICY_DRIFT_SYSTEM_TEMPLATE, EXPLAIN_POLICY_DRIFT_USER_TEMPLATE,
+                new BeanOutputParser<>(PolicyDriftExplanation.class));
+        this.explainPolicyDriftDelta = compile("explainPolicyDriftDelta", EXPLAIN_POLICY_DRIFT_DELTA_SYSTEM_TEMPLATE,
+                EXPLAIN_POLICY_DRIFT_DELTA_USER_TEMPLATE, explainPolicyDrift.parser());
+        this.generalChat = compile("generalChat", GENERAL_CHAT_SYSTEM_TEMPLATE, "{query}", null);
+        log.info("Compiled prompts: recommendAccess={}, recommendAccessFromBaseline={}, explainAnomaly={}, explainAnomalyFindings={}, "
+                        + "explainPolicyDrift={}, explainPolicyDriftDelta={}, generalChat={}",
+                recommendAccess.systemPromptHash(), recommendAccessFromBaseline.systemPromptHash(), explainAnomaly.systemPromptHash(),
+                explainAnomalyFindings.systemPromptHash(), explainPolicyDrift.systemPromptHash(),
+                explainPolicyDriftDelta.systemPromptHash(), generalChat.systemPromptHash());
+    }
+
+    static <T> CompiledPrompt<T> compile(String operation, String systemTemplate, String userTemplate, BeanOutputParser<T> parser) {
+        // Plain replace: the schema text is full of braces and must not go through a template engine
+        String systemText = parser == null ? systemTemplate : systemTemplate.replace("{format}", parser.getFormat());
+        return new CompiledPrompt<>(operation, new SystemMessage(systemText), ResponseCacheKey.sha256(systemText),
+                new CompiledTemplate(userTemplate), parser);
+    }
+
+    public CompiledPrompt<AccessRecommendation> recommendAccess() {
+        return recommendAccess;
+    }
+
+    public CompiledPrompt<AccessRecommendation> recommendAccessWithManagerContext() {
+        return recommendAccessWithManagerContext;
+    }
+
+    public CompiledPrompt<AccessRecommendation> recommendAccessFromBaseline() {
+        return recommendAccessFromBaseline;
+    }
+
+    public CompiledPrompt<AnomalyExplanation> explainAnomaly() {
+        return explainAnomaly;
+    }
+
+    public CompiledPrompt<AnomalyExplanation> explainAnomalyFindings() {
+        return explainAnomalyFindings;
+    }
+
+    public CompiledPrompt<PolicyDriftExplanation> explainPolicyDrift() {
+        return explainPolicyDrift;
+    }
+
+    public CompiledPrompt<PolicyDriftExplanation> explainPolicyDriftDelta() {
+        return explainPolicyDriftDelta;
+    }
+
+    public CompiledPrompt<String> generalChat() {
+        return generalChat;
+    }
+}
@@ -0,0 +1,39 @@
+package com.hackathon.accessguardian.mcp.client.service.execution;
+
+import org.springframework.ai.chat.model.ToolContext;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cancellation flag of one LLM request, carried to its MCP tool calls through the {@link ToolContext}.
+ * Spring AI runs tool calls synchronously inside the model stream, so cancelling the Reactor subscription alone
+ * would let an already scheduled tool call still reach the MCP server; tool callbacks check this flag first.
+ */
+public class RequestCancellation {
+
+    /**
+     * ToolContext key under which a request carries its cancellation flag.
+     */
+    public static final String TOOL_CONTEXT_KEY = "requestCancellation";
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws if the request owning the tool context has been cancelled.
+     */
+    public static void throwIfCancelled(ToolContext toolContext, String toolName) {
+        if (toolContext != null
+                && toolContext.getContext().get(TOOL_CONTEXT_KEY) instanceof RequestCancellation cancellation
+                && cancellation.isCancelled()) {
+            throw new CancellationException("Request cancelled, skipping MCP tool call " + toolName);
+        }
+    }
+}
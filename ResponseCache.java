@@ -0,0 +1,85 @@
+package com.hackathon.accessguardian.mcp.client.service.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Pluggable cache sitting in front of the LLM-backed analytic calls.
+ * Implementations decide how entries are stored and evicted; callers only supply a key and a loader.
+ */
+public interface ResponseCache {
+
+    /**
+     * Returns the cached value or {@code null}; counts as a hit or a miss.
+     */
+    <T> T getIfPresent(ResponseCacheKey key);
+
+    void put(ResponseCacheKey key, Object value);
+
+    /**
+     * Returns the cached value for the key, or invokes the loader and caches its result.
+     * A loader that throws leaves the cache untouched.
+     */
+    default <T> T get(ResponseCacheKey key, Supplier<T> loader) {
+        T cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        T value = loader.get();
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Reactive variant of {@link #get}. The loader is only subscribed on a miss, and only a value that
+     * completes normally is cached, so a cancelled or failed LLM call never poisons the cache.
+     */
+    default <T> Mono<T> getMono(ResponseCacheKey key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> {
+            T cached = getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return loader.get().doOnNext(value -> put(key, value));
+        });
+    }
+
+    void invalidateAll();
+
+    CacheStats stats();
+
+    record CacheStats(long hits, long misses, long evictions, long expirations, int size) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * A cache that never stores anything. Used when caching is switched off.
+     */
+    static ResponseCache noop() {
+        return new ResponseCache() {
+            @Override
+            public <T> T getIfPresent(ResponseCacheKey key) {
+                return null;
+            }
+
+            @Override
+            public void put(ResponseCacheKey key, Object value) {
+            }
+
+            @Override
+            public void invalidateAll() {
+            }
+
+            @Override
+            public CacheStats stats() {
+                return new CacheStats(0, 0, 0, 0, 0);
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.hackathon.accessguardian.mcp.client.config;
+
+import com.hackathon.accessguardian.mcp.client.service.cache.InMemoryResponseCache;
+import com.hackathon.accessguardian.mcp.client.service.cache.ResponseCache;
+import com.hackathon.accessguardian.mcp.client.service.cache.ToolResultMemoizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Configuration
+@Slf4j
+public class ResponseCacheConfig {
+
+    /**
+     * Default in-memory response cache. To replace it, declare another ResponseCache bean (e.g. Redis backed) as @Primary.
+     */
+    @Bean
+    public ResponseCache responseCache(@Value("${access-governance.cache.enabled:true}") boolean enabled,
+                                       @Value("${access-governance.cache.max-entries:1000}") int maxEntries,
+                                       @Value("${access-governance.cache.ttl:PT15M}") Duration ttl) {
+        if (!enabled) {
+            log.info("LLM response cache disabled");
+            return ResponseCache.noop();
+        }
+        log.info("LLM response cache enabled (max {} entries, ttl {})", maxEntries, ttl);
+        return new InMemoryResponseCache(maxEntries, ttl);
+    }
+
+    /**
+     * Memoization of read-only MCP tool results. Only tools on the allowlist are cached;
+     * a ttl of 0 keeps per-request dedup and in-flight coalescing but disables the cross-request cache.
+     */
+    @Bean
+    public ToolResultMemoizer toolResultMemoizer(@Value("${access-governance.tool-memo.cacheable-tools:Get_Employee_Context_Graph,Get_Employee_Details,Get_Group_Details}") Set<String> cacheableTools,
+                                                 @Value("${access-governance.tool-memo.max-entries:5000}") int maxEntries,
+                                                 @Value("${access-governance.tool-memo.ttl:PT60S}") Duration ttl) {
+        log.info("Memoizing MCP tools {} (ttl {})", cacheableTools, ttl);
+        return new ToolResultMemoizer(cacheableTools, maxEntries, ttl);
+    }
+}
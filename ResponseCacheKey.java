@@ -0,0 +1,47 @@
+package com.hackathon.accessguardian.mcp.client.service.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Identity of a cached LLM response: the operation, its normalized arguments, a hash of the
+ * system prompt that produced it and the version of the MCP tool catalog the model could call.
+ * Changing the prompt or the tool set therefore never serves a stale answer.
+ */
+public record ResponseCacheKey(String operation, List<String> arguments, String systemPromptHash, String toolCatalogVersion) {
+
+    public static ResponseCacheKey of(String operation, String systemPrompt, String toolCatalogVersion, Object... arguments) {
+        return ofHashed(operation, sha256(systemPrompt), toolCatalogVersion, arguments);
+    }
+
+    /**
+     * Same as {@link #of} for callers that hashed their system prompt once up front.
+     */
+    public static ResponseCacheKey ofHashed(String operation, String systemPromptHash, String toolCatalogVersion, Object... arguments) {
+        List<String> normalized = Arrays.stream(arguments)
+                .map(ResponseCacheKey::normalize)
+                .toList();
+        return new ResponseCacheKey(operation, normalized, systemPromptHash, toolCatalogVersion);
+    }
+
+    // Trim and collapse inner whitespace so "EMP001 " and "EMP001" share an entry; case is kept, IDs and names may be case-sensitive
+    static String normalize(Object argument) {
+        if (argument == null) {
+            return "";
+        }
+        return argument.toString().trim().replaceAll("\\s+", " ");
+    }
+
+    public static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -36,7 +36,8 @@ public class SecurityConfig extends VaadinWebSecurity { // Extend VaadinWebSecur
                                         "/VAADIN/**", // Vaadin internal resources
                                         "/favicon.ico",
                                         "/", // Root path
-                                        "/access-ai-api/user-info" // Allow user info endpoint for UI to check login status
+                                        "/access-ai-api/user-info", // Allow user info endpoint for UI to check login status
+                                        "/actuator/health" // Liveness/readiness probes; metrics stay behind the login
                                 ).permitAll() // Permit all these paths without authentication
 // All other requests to /access-ai-api/** (API endpoints) require authentication
                                 .requestMatchers("/access-ai-api/**").authenticated()
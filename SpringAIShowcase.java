@@ -1,20 +1,25 @@
 package com.hackathon.accessguardian.mcp.client;
 
-import org.springframework.ai.azure.openai.AzureOpenAiChatModel;
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-public class SpringAIShowcase {
+@Push // Streamed answers are pushed to the browser from background threads via UI.access
+@EnableScheduling // Nightly access sweep, see SweepService
+public class SpringAIShowcase implements AppShellConfigurator {
 
     public static void main(String[] args) {
          SpringApplication.run(SpringAIShowcase.class, args);
     }
     @Bean
-    public ChatClient chatClient(AzureOpenAiChatModel az) {
-        return ChatClient.create(az);
+    public ChatClient chatClient(ChatModel chatModel) { // Azure OpenAI, or the stub model under the loadtest profile
+        return ChatClient.create(chatModel);
     }
 
 }
@@ -0,0 +1,21 @@
+package com.hackathon.accessguardian.mcp.client.ui;
+
+import com.hackathon.accessguardian.mcp.client.service.execution.ActiveStreamRegistry;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cancels a Vaadin session's LLM streams when the session expires or is invalidated (logout).
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamCleanupSessionListener implements VaadinServiceInitListener {
+    private final ActiveStreamRegistry streamRegistry;
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionDestroyListener(destroyEvent ->
+                streamRegistry.cancelSession(destroyEvent.getSession().getPushId(), "session expired"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.hackathon.accessguardian.mcp.client.service.prompt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental parser for one array field of a JSON document that arrives in arbitrary chunks from a token stream.
+ * Each element of the array is decoded and returned as soon as its closing brace or quote has been seen, so a caller
+ * can show the first recommended group long before the model finishes the rest of the document.
+ * Anything outside the target array (other fields, markdown fences, prose) is scanned but ignored.
+ * Not thread-safe: create one per stream.
+ */
+public class StreamingJsonArrayParser<T> {
+
+    private static final ObjectMapper ELEMENT_MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final String fieldName;
+    private final Class<T> elementType;
+    private final StringBuilder element = new StringBuilder();
+    private final StringBuilder lastString = new StringBuilder();
+    private int depth;
+    // Depth of the target array's contents, -1 until "fieldName": [ has been seen
+    private int arrayDepth = -1;
+    private boolean done;
+    private boolean inString;
+    private boolean escaped;
+    private boolean capturing;
+    private String pendingKey;
+
+    public StreamingJsonArrayParser(String fieldName, Class<T> elementType) {
+        this.fieldName = fieldName;
+        this.elementType = elementType;
+    }
+
+    /**
+     * Consumes the next chunk and returns the elements it completed, usually none or one.
+     */
+    public List<T> feed(String chunk) {
+        List<T> completed = List.of();
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (capturing) {
+                element.append(c);
+            }
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (capturing && depth == arrayDepth) {
+                        completed = emit(completed);
+                    }
+                    continue;
+                }
+                if (!capturing) {
+                    lastString.append(c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    startElementIfAtArrayLevel(c);
+                    inString = true;
+                    lastString.setLength(0);
+                }
+                case ':' -> pendingKey = lastString.toString();
+                case '{', '[' -> {
+                    startElementIfAtArrayLevel(c);
+                    if (c == '[' && !done && arrayDepth < 0 && fieldName.equals(pendingKey)) {
+                        arrayDepth = depth + 1;
+                    }
+                    depth++;
+                    pendingKey = null;
+                }
+                case '}', ']' -> {
+                    depth--;
+                    if (capturing && depth == arrayDepth) {
+                        completed = emit(completed);
+                    } else if (c == ']' && depth == arrayDepth - 1) {
+                        arrayDepth = -1;
+                        done = true;
+                    }
+                }
+                case ',' -> pendingKey = null;
+                default -> {
+                    // whitespace, numbers and literals carry no structure we need
+                }
+            }
+        }
+        return completed;
+    }
+
+    private void startElementIfAtArrayLevel(char c) {
+        if (!capturing && depth == arrayDepth) {
+            element.setLength(0);
+            element.append(c);
+            capturing = true;
+        }
+    }
+
+    private List<T> emit(List<T> completed) {
+        capturing = false;
+        List<T> result = completed.isEmpty() ? new ArrayList<>(1) : completed;
+        try {
+            result.add(ELEMENT_MAPPER.readValue(element.toString(), elementType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed '" + fieldName + "' element in model output: " + element, e);
+        }
+        return result;
+    }
+}
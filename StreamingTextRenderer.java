@@ -0,0 +1,104 @@
+package com.hackathon.accessguardian.mcp.client.ui;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.textfield.TextArea;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a token stream into a text area in frames instead of per token.
+ * Tokens are coalesced until a frame is due (every {@code frameInterval}) or {@code maxFrameChars} are pending,
+ * and only the new text of a frame is pushed and appended on the client, so a long answer costs linear bytes.
+ * The renderer keeps the full text in its own buffer and never reads the component's value back;
+ * the server-side value is synchronised once when the stream ends, and the client value is always overwritten on
+ * reset and completion because the server cannot tell what frames the client has appended.
+ */
+class StreamingTextRenderer {
+
+    static final Duration DEFAULT_FRAME_INTERVAL = Duration.ofMillis(50);
+    static final int DEFAULT_MAX_FRAME_CHARS = 1024;
+
+    private final UI ui;
+    private final TextArea target;
+    private final Scheduler frameScheduler;
+    private final Duration frameInterval;
+    private final int maxFrameChars;
+    private final StringBuilder rendered = new StringBuilder();
+    private final StringBuilder pending = new StringBuilder();
+    private Disposable scheduledFrame;
+
+    StreamingTextRenderer(UI ui, TextArea target, Scheduler frameScheduler) {
+        this(ui, target, frameScheduler, DEFAULT_FRAME_INTERVAL, DEFAULT_MAX_FRAME_CHARS);
+    }
+
+    StreamingTextRenderer(UI ui, TextArea target, Scheduler frameScheduler, Duration frameInterval, int maxFrameChars) {
+        this.ui = ui;
+        this.target = target;
+        this.frameScheduler = frameScheduler;
+        this.frameInterval = frameInterval;
+        this.maxFrameChars = maxFrameChars;
+    }
+
+    /**
+     * Clears the buffers and shows the given text, dropping any frame still pending from a previous stream.
+     */
+    synchronized void reset(String initialText) {
+        cancelScheduledFrame();
+        pending.setLength(0);
+        rendered.setLength(0);
+        rendered.append(initialText);
+        ui.access(() -> replaceValue(initialText));
+    }
+
+    synchronized void append(String token) {
+        pending.append(token);
+        if (pending.length() >= maxFrameChars) {
+            flush();
+        } else if (scheduledFrame == null) {
+            scheduledFrame = frameScheduler.schedule(this::flushScheduled, frameInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Flushes what is pending, appends the trailer and makes the server-side value match what the client shows.
+     */
+    synchronized void complete(String trailer) {
+        cancelScheduledFrame();
+        rendered.append(pending).append(trailer);
+        pending.setLength(0);
+        String text = rendered.toString();
+        ui.access(() -> replaceValue(text));
+    }
+
+    private synchronized void flushScheduled() {
+        scheduledFrame = null;
+        flush();
+    }
+
+    private void flush() {
+        cancelScheduledFrame();
+        if (pending.isEmpty()) {
+            return;
+        }
+        String delta = pending.toString();
+        pending.setLength(0);
+        rendered.append(delta);
+        ui.access(() -> target.getElement().executeJs("this.value += $0", delta));
+    }
+
+    // setValue is a no-op when the server value is unchanged, while the client may still show appended frames
+    private void replaceValue(String text) {
+        target.getElement().executeJs("this.value = $0", text);
+        target.setValue(text);
+    }
+
+    private void cancelScheduledFrame() {
+        if (scheduledFrame != null) {
+            scheduledFrame.dispose();
+            scheduledFrame = null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hackathon.accessguardian.mcp.client.stub;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ChatModel that answers from a function of the prompt instead of calling Azure OpenAI.
+ * Streaming returns the whole answer as a single chunk; no tools are ever requested.
+ */
+public class StubChatModel implements ChatModel {
+
+    private final Function<Prompt, String> responder;
+
+    public StubChatModel(Function<Prompt, String> responder) {
+        this.responder = responder;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return response(responder.apply(prompt));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> Flux.just(response(responder.apply(prompt))));
+    }
+
+    protected static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
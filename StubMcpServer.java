@@ -0,0 +1,82 @@
+package com.hackathon.accessguardian.mcp.client.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.HttpServletSseServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+
+import java.util.List;
+
+/**
+ * Standalone MCP SSE server exposing the access-governance tools over a {@link SyntheticOrg}.
+ * Point the client at it (spring.ai.mcp.client.sse.connections.server1.url) to load test without the real directory.
+ * <p>
+ * Usage: {@code java ... StubMcpServer [port=8081] [employees=5000] [managersPerDepartment=20]}
+ */
+public class StubMcpServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubMcpServer.class);
+
+    private final Tomcat tomcat = new Tomcat();
+    private final McpSyncServer mcpServer;
+
+    public StubMcpServer(int port, SyntheticOrg org) {
+        HttpServletSseServerTransportProvider transport = HttpServletSseServerTransportProvider.builder()
+                .objectMapper(new ObjectMapper())
+                .sseEndpoint("/sse")
+                .messageEndpoint("/mcp/message")
+                .build();
+        ToolCallback[] tools = MethodToolCallbackProvider.builder()
+                .toolObjects(new SyntheticOrgTools(org))
+                .build()
+                .getToolCallbacks();
+        this.mcpServer = McpServer.sync(transport)
+                .serverInfo("stub-access-governance", "1.0")
+                .capabilities(McpSchema.ServerCapabilities.builder().tools(true).build())
+                .tools(McpToolUtils.toSyncToolSpecification(List.of(tools)))
+                .build();
+
+        tomcat.setPort(port);
+        tomcat.getConnector();
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "mcp", transport).setAsyncSupported(true);
+        context.addServletMappingDecoded("/*", "mcp");
+    }
+
+    public void start() throws LifecycleException {
+        tomcat.start();
+        logger.info("Stub MCP server listening on port {}", tomcat.getConnector().getLocalPort());
+    }
+
+    public void stop() throws LifecycleException {
+        mcpServer.closeGracefully();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8081;
+        int employees = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int managersPerDepartment = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        SyntheticOrg org = new SyntheticOrg(employees, managersPerDepartment, LoadTestDriver.DATASET_SEED);
+        StubMcpServer server = new StubMcpServer(port, org);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.stop();
+            } catch (LifecycleException e) {
+                logger.warn("Error stopping stub MCP server", e);
+            }
+        }));
+        server.start();
+        server.tomcat.getServer().await();
+    }
+}
@@ -0,0 +1,85 @@
+package com.hackathon.accessguardian.mcp.client.service.sweep;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One employee (anomalies) or group (drift) of a {@link SweepRun}; its status is the run's checkpoint and,
+ * once explained, {@code report} holds the explanation as JSON.
+ */
+@Entity
+@Table(name = "sweep_item",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"runId", "kind", "subjectId"}),
+        indexes = @Index(name = "idx_sweep_item_run_status", columnList = "runId, status"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class SweepItem {
+
+    public enum Kind { EMPLOYEE, GROUP }
+
+    public enum Status {
+        PENDING,         // not screened yet
+        CLEAN,           // screened, nothing to explain
+        FLAGGED,         // screened with findings, waiting for an explanation
+        EXPLAINED,       // report written
+        SKIPPED_BUDGET,  // flagged, but the run's token budget was spent
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false)
+    private Long runId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private String subjectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    private int findingCount;
+
+    // Detect_Access_Anomalies output for flagged employees, kept so the explanation step does not screen again
+    @Lob
+    private String findings;
+
+    @Lob
+    private String report;
+
+    private long tokensUsed;
+
+    @Column(length = 1000)
+    private String error;
+
+    private Instant updatedAt;
+
+    static SweepItem pending(Long runId, Kind kind, String subjectId) {
+        SweepItem item = new SweepItem();
+        item.setRunId(runId);
+        item.setKind(kind);
+        item.setSubjectId(subjectId);
+        item.setUpdatedAt(Instant.now());
+        return item;
+    }
+}
@@ -0,0 +1,20 @@
+package com.hackathon.accessguardian.mcp.client.service.sweep;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SweepItemRepository extends JpaRepository<SweepItem, Long> {
+
+    List<SweepItem> findByRunIdAndStatus(Long runId, SweepItem.Status status);
+
+    List<SweepItem> findByRunIdAndStatusIn(Long runId, Collection<SweepItem.Status> statuses);
+
+    long countByRunIdAndStatus(Long runId, SweepItem.Status status);
+
+    @Query("select coalesce(sum(i.tokensUsed), 0) from SweepItem i where i.runId = :runId")
+    long sumTokensUsedByRunId(@Param("runId") Long runId);
+}
@@ -0,0 +1,55 @@
+package com.hackathon.accessguardian.mcp.client.service.sweep;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One org-wide drift and anomaly sweep. A run that is still RUNNING when the application stops is resumed by the
+ * next sweep from its pending {@link SweepItem}s.
+ */
+@Entity
+@Table(name = "sweep_run")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SweepRun {
+
+    public enum Status { RUNNING, COMPLETED, BUDGET_EXHAUSTED, FAILED }
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    // Drift is checked against this date for every group
+    @Column(nullable = false)
+    private LocalDate driftBaselineDate;
+
+    private int employees;
+    private int groups;
+    private int flagged;
+    private int explained;
+    private int skippedForBudget;
+    private int failed;
+    private long tokenBudget;
+    private long tokensUsed;
+}
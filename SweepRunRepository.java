@@ -0,0 +1,13 @@
+package com.hackathon.accessguardian.mcp.client.service.sweep;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SweepRunRepository extends JpaRepository<SweepRun, Long> {
+
+    Optional<SweepRun> findFirstByStatusOrderByStartedAtDesc(SweepRun.Status status);
+
+    List<SweepRun> findTop20ByOrderByStartedAtDesc();
+}
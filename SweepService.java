@@ -0,0 +1,328 @@
+package com.hackathon.accessguardian.mcp.client.service.sweep;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.accessguardian.mcp.client.service.AccessGovernanceClientService;
+import com.hackathon.accessguardian.mcp.client.service.anomaly.AnomalyPreScreenService;
+import com.hackathon.accessguardian.mcp.client.service.anomaly.AnomalyScreen;
+import com.hackathon.accessguardian.mcp.client.service.drift.DriftDelta;
+import com.hackathon.accessguardian.mcp.client.service.drift.PolicyDriftTracker;
+import com.hackathon.accessguardian.mcp.client.service.metrics.TokenUsage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly drift and anomaly sweep over every employee and group found by {@link OrgInventory}.
+ * <ol>
+ *   <li>screen - each employee goes through Detect_Access_Anomalies and each group through the drift tracker,
+ *       {@code parallelism} at a time, without the model; most items end here as CLEAN</li>
+ *   <li>explain - flagged items are explained by the model, {@code llm-parallelism} at a time and at most one start per
+ *       {@code llm-min-interval}, while the run's token budget lasts; the rest are marked SKIPPED_BUDGET</li>
+ * </ol>
+ * Every item's status and token use is persisted as it changes, so a run interrupted by a restart is resumed where it
+ * stopped, with the tokens its explained and failed items already used counted against its budget.
+ * Reports stay in the sweep tables for {@code /access-ai-api/sweeps}.
+ */
+@Service
+@Slf4j
+public class SweepService {
+
+    private static final EnumSet<SweepItem.Status> REPORTED = EnumSet.of(SweepItem.Status.FLAGGED, SweepItem.Status.EXPLAINED,
+            SweepItem.Status.SKIPPED_BUDGET, SweepItem.Status.FAILED);
+
+    private final OrgInventory inventory;
+    private final AnomalyPreScreenService anomalyPreScreen;
+    private final PolicyDriftTracker driftTracker;
+    private final AccessGovernanceClientService clientService;
+    private final SweepRunRepository runs;
+    private final SweepItemRepository items;
+    private final Scheduler governanceScheduler;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicBoolean running = new AtomicBoolean();
+    // Drift found by the screening stage of the current run, by item id, handed to the explain stage as is
+    private final Map<Long, DriftDelta> screenedDrift = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int parallelism;
+    private final int llmParallelism;
+    private final Duration llmMinInterval;
+    private final long tokenBudget;
+    private final long tokensPerExplanation;
+    private final String driftBaselineDate;
+
+    public SweepService(OrgInventory inventory, AnomalyPreScreenService anomalyPreScreen, PolicyDriftTracker driftTracker,
+                        AccessGovernanceClientService clientService, SweepRunRepository runs, SweepItemRepository items,
+                        Scheduler governanceScheduler,
+                        @Value("${access-governance.sweep.enabled:false}") boolean enabled,
+                        @Value("${access-governance.sweep.parallelism:16}") int parallelism,
+                        @Value("${access-governance.sweep.llm-parallelism:4}") int llmParallelism,
+                        @Value("${access-governance.sweep.llm-min-interval:PT0.5S}") Duration llmMinInterval,
+                        @Value("${access-governance.sweep.token-budget:2000000}") long tokenBudget,
+                        @Value("${access-governance.sweep.tokens-per-explanation:3000}") long tokensPerExplanation,
+                        @Value("${access-governance.sweep.drift-baseline-date:}") String driftBaselineDate) {
+        this.inventory = inventory;
+        this.anomalyPreScreen = anomalyPreScreen;
+        this.driftTracker = driftTracker;
+        this.clientService = clientService;
+        this.runs = runs;
+        this.items = items;
+        this.governanceScheduler = governanceScheduler;
+        this.enabled = enabled;
+        this.parallelism = parallelism;
+        this.llmParallelism = llmParallelism;
+        this.llmMinInterval = llmMinInterval;
+        this.tokenBudget = tokenBudget;
+        this.tokensPerExplanation = tokensPerExplanation;
+        this.driftBaselineDate = driftBaselineDate;
+    }
+
+    @Scheduled(cron = "${access-governance.sweep.cron:0 0 1 * * *}")
+    public void scheduledSweep() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Scheduler is triggering the access sweep");
+        try {
+            sweep().block();
+        } catch (RuntimeException e) {
+            log.error("Scheduled access sweep failed", e);
+        }
+    }
+
+    /**
+     * Resumes the unfinished run if there is one, otherwise starts a new one, and completes when it has finished.
+     * Completes empty if a sweep is already running.
+     */
+    public Mono<SweepRun> sweep() {
+        return Mono.defer(() -> {
+            if (!running.compareAndSet(false, true)) {
+                log.info("Access sweep already running, not starting another");
+                return Mono.<SweepRun>empty();
+            }
+            return resumeOrStart()
+                    .flatMap(this::execute)
+                    .doFinally(signal -> release());
+        });
+    }
+
+    /**
+     * Same as {@link #sweep()}, but the sweep runs on its own: the returned Mono emits the new or resumed run as soon
+     * as it is recorded, and cancelling it does not stop the sweep. Completes empty if a sweep is already running.
+     */
+    public Mono<SweepRun> startInBackground() {
+        return Mono.defer(() -> {
+            if (!running.compareAndSet(false, true)) {
+                log.info("Access sweep already running, not starting another");
+                return Mono.<SweepRun>empty();
+            }
+            // The sweep below is the first subscriber, so the caller going away never cancels the shared start
+            Mono<SweepRun> started = resumeOrStart().cache();
+            started.flatMap(this::execute)
+                    .doFinally(signal -> release())
+                    .subscribe(null, error -> log.error("Access sweep could not be started: {}", error.getMessage()));
+            return started;
+        });
+    }
+
+    private Mono<SweepRun> execute(SweepRun run) {
+        return blocking(() -> items.sumTokensUsedByRunId(run.getId())).flatMap(spent -> {
+            TokenBudget budget = new TokenBudget(run.getTokenBudget(), Math.max(spent, run.getTokensUsed()));
+            return screen(run)
+                    .then(Mono.defer(() -> explain(run, budget)))
+                    .then(Mono.defer(() -> finish(run, budget, SweepRun.Status.COMPLETED)))
+                    .onErrorResume(error -> {
+                        log.error("Access sweep {} failed: {}", run.getId(), error.getMessage());
+                        return finish(run, budget, SweepRun.Status.FAILED);
+                    });
+        });
+    }
+
+    private void release() {
+        screenedDrift.clear();
+        running.set(false);
+    }
+
+    public List<SweepRun> recentRuns() {
+        return runs.findTop20ByOrderByStartedAtDesc();
+    }
+
+    /**
+     * Items of a run that were flagged, explained, skipped or failed; clean items are left out.
+     */
+    public List<SweepItem> report(Long runId) {
+        return items.findByRunIdAndStatusIn(runId, REPORTED);
+    }
+
+    private Mono<SweepRun> resumeOrStart() {
+        return blocking(() -> runs.findFirstByStatusOrderByStartedAtDesc(SweepRun.Status.RUNNING))
+                .flatMap(unfinished -> unfinished
+                        .map(run -> {
+                            log.info("Resuming access sweep {} started at {}", run.getId(), run.getStartedAt());
+                            return Mono.just(run);
+                        })
+                        .orElseGet(() -> inventory.discover().flatMap(found -> blocking(() -> {
+                            SweepRun run = new SweepRun();
+                            run.setStatus(SweepRun.Status.RUNNING);
+                            run.setStartedAt(Instant.now());
+                            run.setDriftBaselineDate(baselineDate());
+                            run.setEmployees(found.employeeIds().size());
+                            run.setGroups(found.groupIds().size());
+                            run.setTokenBudget(tokenBudget);
+                            SweepRun saved = runs.save(run);
+                            List<SweepItem> pending = new ArrayList<>();
+                            found.employeeIds().forEach(id -> pending.add(SweepItem.pending(saved.getId(), SweepItem.Kind.EMPLOYEE, id)));
+                            found.groupIds().forEach(id -> pending.add(SweepItem.pending(saved.getId(), SweepItem.Kind.GROUP, id)));
+                            items.saveAll(pending);
+                            log.info("Started access sweep {}: {} employees, {} groups, drift since {}, token budget {}",
+                                    saved.getId(), saved.getEmployees(), saved.getGroups(), saved.getDriftBaselineDate(), tokenBudget);
+                            return saved;
+                        }))));
+    }
+
+    // Stage 1: no model involved
+    private Mono<Void> screen(SweepRun run) {
+        return blocking(() -> items.findByRunIdAndStatus(run.getId(), SweepItem.Status.PENDING))
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(item -> screenOne(run, item)
+                        .onErrorResume(error -> Mono.just(failed(item, error)))
+                        .flatMap(this::save), parallelism)
+                .then();
+    }
+
+    private Mono<SweepItem> screenOne(SweepRun run, SweepItem item) {
+        if (item.getKind() == SweepItem.Kind.EMPLOYEE) {
+            return anomalyPreScreen.screen(item.getSubjectId()).map(screen -> {
+                if (screen.isClean()) {
+                    item.setStatus(SweepItem.Status.CLEAN);
+                } else {
+                    item.setStatus(SweepItem.Status.FLAGGED);
+                    item.setFindingCount(screen.findingCount());
+                    item.setFindings(screen.findings().toString());
+                }
+                return item;
+            });
+        }
+        return driftTracker.refresh(item.getSubjectId(), run.getDriftBaselineDate()).map(delta -> {
+            int drift = delta.snapshot().getAddedMembers().size() + delta.snapshot().getRemovedMembers().size();
+            item.setFindingCount(drift);
+            item.setStatus(drift == 0 ? SweepItem.Status.CLEAN : SweepItem.Status.FLAGGED);
+            if (drift > 0) {
+                screenedDrift.put(item.getId(), delta);
+            }
+            return item;
+        });
+    }
+
+    // Stage 2: model calls within the token budget
+    private Mono<Void> explain(SweepRun run, TokenBudget budget) {
+        Flux<SweepItem> flagged = blocking(() -> items.findByRunIdAndStatus(run.getId(), SweepItem.Status.FLAGGED))
+                .flatMapMany(Flux::fromIterable);
+        if (!llmMinInterval.isZero()) {
+            flagged = flagged.delayElements(llmMinInterval, governanceScheduler);
+        }
+        return flagged
+                .flatMap(item -> explainOne(run, item, budget)
+                        .onErrorResume(error -> Mono.just(failed(item, error)))
+                        .flatMap(this::save), llmParallelism)
+                .then();
+    }
+
+    private Mono<SweepItem> explainOne(SweepRun run, SweepItem item, TokenBudget budget) {
+        if (!budget.tryReserve(tokensPerExplanation)) {
+            item.setStatus(SweepItem.Status.SKIPPED_BUDGET);
+            return Mono.just(item);
+        }
+        TokenUsage usage = new TokenUsage();
+        Mono<?> explanation = item.getKind() == SweepItem.Kind.EMPLOYEE
+                ? Mono.fromCallable(() -> new AnomalyScreen(item.getSubjectId(), objectMapper.readTree(item.getFindings())))
+                        .flatMap(screen -> clientService.explainAnomaly(item.getSubjectId(), screen))
+                : screenedDrift(run, item).flatMap(clientService::explainPolicyDrift);
+        return explanation
+                .contextWrite(context -> context.put(TokenUsage.CONTEXT_KEY, usage))
+                .map(report -> {
+                    item.setReport(toJson(report));
+                    item.setStatus(SweepItem.Status.EXPLAINED);
+                    item.setTokensUsed(usage.total());
+                    return item;
+                })
+                // Failed calls may have spent tokens too; recorded so a resumed run counts them
+                .doOnError(error -> item.setTokensUsed(usage.total()))
+                .doFinally(signal -> budget.settle(tokensPerExplanation, usage.total()));
+    }
+
+    /**
+     * The drift this run's screening stage found; after a restart, the latest stored snapshot that stage left behind.
+     */
+    private Mono<DriftDelta> screenedDrift(SweepRun run, SweepItem item) {
+        DriftDelta screened = screenedDrift.remove(item.getId());
+        if (screened != null) {
+            return Mono.just(screened);
+        }
+        return driftTracker.latest(item.getSubjectId(), run.getDriftBaselineDate())
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No drift snapshot for group " + item.getSubjectId())));
+    }
+
+    private Mono<SweepRun> finish(SweepRun run, TokenBudget budget, SweepRun.Status outcome) {
+        return blocking(() -> {
+            long skipped = items.countByRunIdAndStatus(run.getId(), SweepItem.Status.SKIPPED_BUDGET);
+            run.setFlagged((int) (items.countByRunIdAndStatus(run.getId(), SweepItem.Status.FLAGGED)
+                    + items.countByRunIdAndStatus(run.getId(), SweepItem.Status.EXPLAINED) + skipped));
+            run.setExplained((int) items.countByRunIdAndStatus(run.getId(), SweepItem.Status.EXPLAINED));
+            run.setSkippedForBudget((int) skipped);
+            run.setFailed((int) items.countByRunIdAndStatus(run.getId(), SweepItem.Status.FAILED));
+            run.setTokensUsed(budget.spent());
+            run.setStatus(outcome == SweepRun.Status.COMPLETED && skipped > 0 ? SweepRun.Status.BUDGET_EXHAUSTED : outcome);
+            run.setFinishedAt(Instant.now());
+            SweepRun saved = runs.save(run);
+            log.info("Access sweep {} {}: {} flagged, {} explained, {} skipped for budget, {} failed, {} of {} tokens",
+                    saved.getId(), saved.getStatus(), saved.getFlagged(), saved.getExplained(), saved.getSkippedForBudget(),
+                    saved.getFailed(), saved.getTokensUsed(), saved.getTokenBudget());
+            return saved;
+        });
+    }
+
+    // Without a configured baseline, drift is measured from the first day of the current month
+    private LocalDate baselineDate() {
+        return driftBaselineDate.isBlank() ? LocalDate.now().withDayOfMonth(1) : LocalDate.parse(driftBaselineDate);
+    }
+
+    private Mono<SweepItem> save(SweepItem item) {
+        item.setUpdatedAt(Instant.now());
+        return blocking(() -> items.save(item));
+    }
+
+    private static SweepItem failed(SweepItem item, Throwable error) {
+        log.warn("Access sweep item {} {} failed: {}", item.getKind(), item.getSubjectId(), error.getMessage());
+        item.setStatus(SweepItem.Status.FAILED);
+        String message = String.valueOf(error.getMessage());
+        item.setError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        return item;
+    }
+
+    private String toJson(Object report) {
+        try {
+            return objectMapper.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sweep report is not serializable", e);
+        }
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(governanceScheduler);
+    }
+}
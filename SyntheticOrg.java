@@ -0,0 +1,144 @@
+package com.hackathon.accessguardian.mcp.client.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic organisation for load tests: departments with managers, role-based group
+ * baselines, a sprinkle of outlier memberships (anomalies) and dated joins/leaves (policy drift).
+ * The same seed always yields the same IDs, so the driver and the stub MCP server agree without sharing state.
+ */
+public class SyntheticOrg {
+
+    public record Employee(String employeeId, String name, String department, String role, String lineManagerId) {}
+
+    public record Group(String groupId, String groupName, String description) {}
+
+    public record Membership(String employeeId, String groupId, LocalDate addedOn, LocalDate removedOn) {
+        boolean activeOn(LocalDate date) {
+            return !addedOn.isAfter(date) && (removedOn == null || removedOn.isAfter(date));
+        }
+    }
+
+    private static final String[] DEPARTMENTS = {"Engineering", "Finance", "Sales", "HR", "Operations"};
+    private static final String[] ROLES = {"Software Engineer", "Analyst", "Account Executive", "HR Partner", "Operator"};
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+
+    private final Map<String, Employee> employees = new LinkedHashMap<>();
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+    private final List<Membership> memberships = new ArrayList<>();
+    private final Map<String, List<Membership>> membershipsByEmployee = new HashMap<>();
+    private final Map<String, List<Membership>> membershipsByGroup = new HashMap<>();
+    private final Map<String, List<Employee>> reportsByManager = new HashMap<>();
+
+    public SyntheticOrg(int employeeCount, int managersPerDepartment, long seed) {
+        Random random = new Random(seed);
+        int groupCounter = 1;
+        Map<String, List<String>> baselineGroups = new HashMap<>();
+        for (String department : DEPARTMENTS) {
+            List<String> baseline = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String groupId = String.format("grp%03d", groupCounter++);
+                groups.put(groupId, new Group(groupId, department + "-" + i, "Baseline access for " + department));
+                baseline.add(groupId);
+            }
+            baselineGroups.put(department, baseline);
+        }
+        List<String> sensitiveGroups = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String groupId = String.format("grp%03d", groupCounter++);
+            groups.put(groupId, new Group(groupId, "Privileged-" + i, "Privileged access, review required"));
+            sensitiveGroups.add(groupId);
+        }
+
+        int managerCounter = 1;
+        Map<String, List<String>> managersByDepartment = new HashMap<>();
+        for (int d = 0; d < DEPARTMENTS.length; d++) {
+            List<String> managers = new ArrayList<>();
+            for (int m = 0; m < managersPerDepartment; m++) {
+                Employee manager = new Employee(String.format("mgr%03d", managerCounter++), "Manager " + managerCounter,
+                        DEPARTMENTS[d], "Manager", null);
+                add(manager, baselineGroups.get(DEPARTMENTS[d]), random);
+                managers.add(manager.employeeId());
+            }
+            managersByDepartment.put(DEPARTMENTS[d], managers);
+        }
+        for (int e = 1; e <= employeeCount; e++) {
+            int d = random.nextInt(DEPARTMENTS.length);
+            List<String> managers = managersByDepartment.get(DEPARTMENTS[d]);
+            Employee employee = new Employee(String.format("emp%05d", e), "Employee " + e, DEPARTMENTS[d], ROLES[d],
+                    managers.get(random.nextInt(managers.size())));
+            add(employee, baselineGroups.get(DEPARTMENTS[d]), random);
+            // Roughly 5% of employees hold a privileged group none of their peers have
+            if (random.nextInt(20) == 0) {
+                addMembership(employee.employeeId(), sensitiveGroups.get(random.nextInt(sensitiveGroups.size())), random);
+            }
+        }
+    }
+
+    private void add(Employee employee, List<String> baseline, Random random) {
+        employees.put(employee.employeeId(), employee);
+        if (employee.lineManagerId() != null) {
+            reportsByManager.computeIfAbsent(employee.lineManagerId(), k -> new ArrayList<>()).add(employee);
+        }
+        for (String groupId : baseline) {
+            if (random.nextInt(10) < 9) {
+                addMembership(employee.employeeId(), groupId, random);
+            }
+        }
+    }
+
+    private void addMembership(String employeeId, String groupId, Random random) {
+        LocalDate addedOn = START.plusDays(random.nextInt(540));
+        LocalDate removedOn = random.nextInt(15) == 0 ? addedOn.plusDays(1 + random.nextInt(120)) : null;
+        Membership membership = new Membership(employeeId, groupId, addedOn, removedOn);
+        memberships.add(membership);
+        membershipsByEmployee.computeIfAbsent(employeeId, k -> new ArrayList<>()).add(membership);
+        membershipsByGroup.computeIfAbsent(groupId, k -> new ArrayList<>()).add(membership);
+    }
+
+    public List<Employee> employees() {
+        return List.copyOf(employees.values());
+    }
+
+    public List<Group> groups() {
+        return List.copyOf(groups.values());
+    }
+
+    public Employee employee(String employeeId) {
+        return employees.get(employeeId);
+    }
+
+    public Group group(String groupId) {
+        return groups.get(groupId);
+    }
+
+    public List<Employee> directReports(String managerId) {
+        return reportsByManager.getOrDefault(managerId, Collections.emptyList());
+    }
+
+    public List<Employee> peers(Employee employee) {
+        return employees.values().stream()
+                .filter(other -> !other.employeeId().equals(employee.employeeId()))
+                .filter(other -> other.department().equals(employee.department()) && other.role().equals(employee.role()))
+                .toList();
+    }
+
+    public List<String> currentGroups(String employeeId) {
+        LocalDate today = LocalDate.now();
+        return membershipsByEmployee.getOrDefault(employeeId, Collections.emptyList()).stream()
+                .filter(membership -> membership.activeOn(today))
+                .map(Membership::groupId)
+                .toList();
+    }
+
+    public List<Membership> membershipsOfGroup(String groupId) {
+        return membershipsByGroup.getOrDefault(groupId, Collections.emptyList());
+    }
+}
@@ -0,0 +1,97 @@
+package com.hackathon.accessguardian.mcp.client.loadtest;
+
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The access-governance MCP tools, answered from a {@link SyntheticOrg} instead of the real directory.
+ * Tool names and payload shapes follow the production server so client prompts work unchanged.
+ */
+public class SyntheticOrgTools {
+
+    private final SyntheticOrg org;
+
+    public SyntheticOrgTools(SyntheticOrg org) {
+        this.org = org;
+    }
+
+    @Tool(name = "Get_Employee_Context_Graph",
+            description = "Returns the employee, their line manager, direct reports and peers in the same role and department, each with current group memberships")
+    public Map<String, Object> getEmployeeContextGraph(@ToolParam(description = "Employee ID") String employeeId) {
+        SyntheticOrg.Employee employee = org.employee(employeeId);
+        if (employee == null) {
+            return Map.of("error", "Unknown employee " + employeeId);
+        }
+        Map<String, Object> graph = new LinkedHashMap<>();
+        graph.put("employeeDetails", details(employee));
+        graph.put("lineManagerDetails", employee.lineManagerId() == null ? null : details(org.employee(employee.lineManagerId())));
+        graph.put("directReports", org.directReports(employeeId).stream().map(this::details).toList());
+        graph.put("peerEmployeesInSameRoleAndDept", org.peers(employee).stream().map(this::details).toList());
+        return graph;
+    }
+
+    @Tool(name = "Get_Employee_Details", description = "Returns basic details and current group memberships of an employee")
+    public Map<String, Object> getEmployeeDetails(@ToolParam(description = "Employee ID") String employeeId) {
+        SyntheticOrg.Employee employee = org.employee(employeeId);
+        return employee == null ? Map.of("error", "Unknown employee " + employeeId) : details(employee);
+    }
+
+    @Tool(name = "Get_Group_Details", description = "Returns the name and purpose of an access group")
+    public SyntheticOrg.Group getGroupDetails(@ToolParam(description = "Group ID") String groupId) {
+        return org.group(groupId);
+    }
+
+    @Tool(name = "Detect_Access_Anomalies",
+            description = "Lists group memberships of the employee that fewer than 10% of their peers hold")
+    public List<Map<String, Object>> detectAccessAnomalies(@ToolParam(description = "Employee ID") String employeeId) {
+        SyntheticOrg.Employee employee = org.employee(employeeId);
+        if (employee == null) {
+            return List.of();
+        }
+        List<SyntheticOrg.Employee> peers = org.peers(employee);
+        Map<String, Integer> peerCounts = new HashMap<>();
+        peers.forEach(peer -> org.currentGroups(peer.employeeId()).forEach(groupId -> peerCounts.merge(groupId, 1, Integer::sum)));
+        return org.currentGroups(employeeId).stream()
+                .filter(groupId -> peers.isEmpty() || peerCounts.getOrDefault(groupId, 0) * 10 < peers.size())
+                .map(groupId -> Map.<String, Object>of(
+                        "groupId", groupId,
+                        "anomalyType", "Peer_Outlier",
+                        "peersWithAccess", peerCounts.getOrDefault(groupId, 0),
+                        "peerCount", peers.size()))
+                .toList();
+    }
+
+    @Tool(name = "Detect_Policy_Drift", description = "Lists members added to and removed from a group since the baseline date")
+    public Map<String, Object> detectPolicyDrift(@ToolParam(description = "Group ID") String groupId,
+                                                 @ToolParam(description = "Baseline date, YYYY-MM-DD") String baselineDate) {
+        LocalDate baseline = LocalDate.parse(baselineDate);
+        LocalDate today = LocalDate.now();
+        List<SyntheticOrg.Membership> memberships = org.membershipsOfGroup(groupId);
+        List<String> added = memberships.stream()
+                .filter(m -> !m.activeOn(baseline) && m.activeOn(today))
+                .map(SyntheticOrg.Membership::employeeId)
+                .toList();
+        List<String> removed = memberships.stream()
+                .filter(m -> m.activeOn(baseline) && !m.activeOn(today))
+                .map(SyntheticOrg.Membership::employeeId)
+                .toList();
+        return Map.of("groupId", groupId, "baselineDate", baselineDate, "addedMembers", added, "removedMembers", removed);
+    }
+
+    private Map<String, Object> details(SyntheticOrg.Employee employee) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("employeeId", employee.employeeId());
+        details.put("name", employee.name());
+        details.put("department", employee.department());
+        details.put("role", employee.role());
+        details.put("lineManagerId", employee.lineManagerId());
+        details.put("currentGroupMemberships", org.currentGroups(employee.employeeId()));
+        return details;
+    }
+}
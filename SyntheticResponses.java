@@ -0,0 +1,76 @@
+package com.hackathon.accessguardian.mcp.client.stub;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Canned model answers for offline runs, picked by the persona in the system prompt so every analytic
+ * call gets a payload its BeanOutputParser accepts.
+ */
+public final class SyntheticResponses {
+
+    public static final String RECOMMENDATION = """
+            {"employeeId":"new001","employeeName":"John Doe","recommendationType":"New_Joiner_Groups",
+             "recommendedGroups":[
+               {"groupId":"grp001","groupName":"Engineering-All","justification":"All peers and the manager are members","action":"ADD"},
+               {"groupId":"grp007","groupName":"GitHub-Developers","justification":"Required for the Software Engineer role","action":"ADD"},
+               {"groupId":"grp042","groupName":"Prod-DB-Admin","justification":"Only 1 of 12 peers holds this","action":"REVIEW"}],
+             "overallJustification":"Least-privilege baseline derived from manager and peer memberships"}
+            """;
+
+    public static final String ANOMALY = """
+            {"employeeId":"emp001","employeeName":"Alice Johnson","anomalyType":"Peer_Outlier","detectedDate":"2024-05-01",
+             "explanation":"Alice is the only member of Finance-Approvers in Engineering",
+             "contributingFactors":["No peers have this access","Role mismatch"],"suggestedAction":"Review access"}
+            """;
+
+    public static final String POLICY_DRIFT = """
+            {"groupName":"Prod-DB-Admin","baselineDate":"2024-01-01","explanation":"Three members were added without a change ticket",
+             "addedMembers":["emp004","emp019","emp023"],"removedMembers":["emp002"],"impactAssessment":"High risk - requires review"}
+            """;
+
+    public static final String CHAT = """
+            Alice Johnson is in the Engineering department and belongs to Engineering-All, GitHub-Developers and \
+            VPN-Users. Her manager is Bob Smith (mgr001). None of her memberships look unusual compared to her peers.""";
+
+    // Employee, manager and joiner ids as generated by SyntheticOrg and used in the sample answers
+    private static final Pattern EMPLOYEE_ID = Pattern.compile("\\b(?:emp|mgr|new)\\d+\\b");
+
+    private SyntheticResponses() {
+    }
+
+    /**
+     * Arguments for a scripted Get_Employee_Context_Graph call: the first employee id in the user message.
+     */
+    public static String employeeArguments(Prompt prompt) {
+        String user = prompt.getInstructions().stream()
+                .filter(message -> message.getMessageType() == MessageType.USER)
+                .map(Message::getText)
+                .reduce((first, last) -> last)
+                .orElse("");
+        Matcher matcher = EMPLOYEE_ID.matcher(user);
+        return "{\"employeeId\":\"" + (matcher.find() ? matcher.group() : "emp00000") + "\"}";
+    }
+
+    public static String forPrompt(Prompt prompt) {
+        String system = prompt.getInstructions().stream()
+                .filter(message -> message.getMessageType() == MessageType.SYSTEM)
+                .map(Message::getText)
+                .findFirst()
+                .orElse("");
+        if (system.contains("Access Governance Advisor")) {
+            return RECOMMENDATION;
+        }
+        if (system.contains("Security Analyst")) {
+            return ANOMALY;
+        }
+        if (system.contains("Compliance")) {
+            return POLICY_DRIFT;
+        }
+        return CHAT;
+    }
+}
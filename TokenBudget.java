@@ -0,0 +1,37 @@
+package com.hackathon.accessguardian.mcp.client.service.sweep;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token allowance of one sweep run. Each model call reserves an estimate up front, so concurrent calls cannot
+ * overshoot the budget by more than their estimates, and settles with what it actually used afterwards.
+ */
+class TokenBudget {
+
+    private final long limit;
+    private final AtomicLong spent;
+
+    TokenBudget(long limit, long alreadySpent) {
+        this.limit = limit;
+        this.spent = new AtomicLong(alreadySpent);
+    }
+
+    boolean tryReserve(long tokens) {
+        long current;
+        do {
+            current = spent.get();
+            if (current + tokens > limit) {
+                return false;
+            }
+        } while (!spent.compareAndSet(current, current + tokens));
+        return true;
+    }
+
+    void settle(long reserved, long actual) {
+        spent.addAndGet(actual - reserved);
+    }
+
+    long spent() {
+        return spent.get();
+    }
+}
@@ -0,0 +1,23 @@
+package com.hackathon.accessguardian.mcp.client.service.metrics;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+/**
+ * Cheap token estimate (about four characters per token for English text and JSON). Used for budgeting
+ * and whenever the model does not report usage, e.g. for tool results that are never counted on their own.
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+
+    public static int estimate(List<Message> messages) {
+        return messages.stream().mapToInt(message -> estimate(message.getText())).sum();
+    }
+}
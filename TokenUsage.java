@@ -0,0 +1,33 @@
+package com.hackathon.accessguardian.mcp.client.service.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tokens used by the ChatClient calls made on behalf of one caller. Put it in the Reactor subscriber context under
+ * {@link #CONTEXT_KEY} and every call in that subscription adds its prompt and completion tokens when it ends,
+ * e.g. so a batch job can charge them against its own budget.
+ */
+public class TokenUsage {
+
+    public static final String CONTEXT_KEY = TokenUsage.class.getName();
+
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+
+    void add(int prompt, int completion) {
+        promptTokens.addAndGet(prompt);
+        completionTokens.addAndGet(completion);
+    }
+
+    public long promptTokens() {
+        return promptTokens.get();
+    }
+
+    public long completionTokens() {
+        return completionTokens.get();
+    }
+
+    public long total() {
+        return promptTokens.get() + completionTokens.get();
+    }
+}
@@ -0,0 +1,29 @@
+package com.hackathon.accessguardian.mcp.client.config;
+
+import com.hackathon.accessguardian.mcp.client.service.compaction.ToolResultCompactor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+@Configuration
+@Slf4j
+public class ToolResultCompactionConfig {
+
+    /**
+     * Tool-result compaction for the tools listed in access-governance.compaction.tools; an empty list turns it off.
+     * Employee objects keep all their fields unless access-governance.compaction.employee-fields lists the ones to keep.
+     */
+    @Bean
+    public ToolResultCompactor toolResultCompactor(@Value("${access-governance.compaction.tools:Get_Employee_Context_Graph,Get_Employee_Details}") Set<String> tools,
+                                                   @Value("${access-governance.compaction.employee-fields:}") Set<String> employeeFields,
+                                                   @Value("${access-governance.compaction.aggregated-fields:peerEmployeesInSameRoleAndDept,directReports}") Set<String> aggregatedFields,
+                                                   @Value("${access-governance.compaction.aggregate-above:10}") int aggregateAbove,
+                                                   @Value("${access-governance.compaction.sample-size:10}") int sampleSize,
+                                                   @Value("${access-governance.compaction.max-tokens:4000}") int maxTokens) {
+        log.info("Compacting results of MCP tools {} to at most {} tokens", tools, maxTokens);
+        return new ToolResultCompactor(tools, employeeFields, aggregatedFields, aggregateAbove, sampleSize, maxTokens);
+    }
+}
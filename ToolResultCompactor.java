@@ -0,0 +1,246 @@
+package com.hackathon.accessguardian.mcp.client.service.compaction;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hackathon.accessguardian.mcp.client.service.metrics.TokenEstimator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shrinks MCP tool results before they are handed back to the model, in three stages:
+ * <ol>
+ *   <li>projection - memberships keep only groupId/groupName; employee objects keep only the configured fields,
+ *       or everything when none are configured</li>
+ *   <li>aggregation - large employee lists (peers, direct reports) become a group to holder-count histogram
+ *       plus a sample of employee ids, which is what the model derives from them anyway</li>
+ *   <li>budget - arrays are cut from the tail (rarest groups first) until the result fits the token budget; the
+ *       memberships of the employee and manager the result is about are never cut</li>
+ * </ol>
+ * MCP wraps tool output in content blocks ({@code [{"type":"text","text":"..."}]}); the JSON inside text blocks is
+ * compacted and re-wrapped. Whatever still does not fit is wrapped in a JSON object holding the truncated text,
+ * so callers that parse the result always get JSON back.
+ */
+@Slf4j
+public class ToolResultCompactor {
+
+    static final String MEMBERSHIPS_FIELD = "currentGroupMemberships";
+    private static final Set<String> MEMBERSHIP_FIELDS = Set.of("groupId", "groupName");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Set<String> tools;
+    private final Set<String> employeeFields;
+    private final Set<String> aggregatedFields;
+    private final int aggregateAbove;
+    private final int sampleSize;
+    private final int maxTokens;
+    // Employee fields the allowlist removed, each logged once so a new server field does not vanish unnoticed
+    private final Set<String> droppedFields = ConcurrentHashMap.newKeySet();
+
+    public ToolResultCompactor(Set<String> tools, Set<String> employeeFields, Set<String> aggregatedFields,
+                               int aggregateAbove, int sampleSize, int maxTokens) {
+        this.tools = Set.copyOf(tools);
+        this.employeeFields = Set.copyOf(employeeFields);
+        this.aggregatedFields = Set.copyOf(aggregatedFields);
+        this.aggregateAbove = aggregateAbove;
+        this.sampleSize = sampleSize;
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * Matches Spring AI's connection-prefixed tool names too, like ToolResultMemoizer.
+     */
+    public boolean appliesTo(String exposedToolName) {
+        return tools.stream().anyMatch(tool -> exposedToolName.equals(tool) || exposedToolName.endsWith("_" + tool));
+    }
+
+    public String compact(String toolName, String result) {
+        if (result == null || result.isEmpty()) {
+            return result;
+        }
+        String compacted;
+        try {
+            JsonNode root = mapper.readTree(result);
+            if (isMcpContent(root)) {
+                for (JsonNode block : root) {
+                    if ("text".equals(block.path("type").asText())) {
+                        ((ObjectNode) block).put("text", compactPayload(block.path("text").asText()));
+                    }
+                }
+                compacted = mapper.writeValueAsString(root);
+            } else {
+                compacted = compactJson(root);
+            }
+        } catch (JsonProcessingException e) {
+            compacted = truncateResult(result);
+        }
+        if (log.isDebugEnabled() && compacted.length() < result.length()) {
+            log.debug("Compacted {} result from ~{} to ~{} tokens", toolName, TokenEstimator.estimate(result), TokenEstimator.estimate(compacted));
+        }
+        return compacted;
+    }
+
+    private static boolean isMcpContent(JsonNode root) {
+        return root.isArray() && !root.isEmpty() && root.get(0).isObject() && root.get(0).has("type");
+    }
+
+    private String compactPayload(String text) {
+        try {
+            return compactJson(mapper.readTree(text));
+        } catch (JsonProcessingException e) {
+            return truncateResult(text);
+        }
+    }
+
+    private String truncateResult(String text) {
+        try {
+            return truncateText(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Truncated tool result is not serializable", e);
+        }
+    }
+
+    private String compactJson(JsonNode root) throws JsonProcessingException {
+        project(root);
+        if (root instanceof ObjectNode object) {
+            aggregate(object);
+        }
+        return fitToBudget(root);
+    }
+
+    // Stage 1: drop employee fields the prompts never look at and reduce memberships to id and name
+    private void project(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            if (object.has("employeeId") && !employeeFields.isEmpty()) {
+                object.fieldNames().forEachRemaining(field -> {
+                    if (!employeeFields.contains(field) && droppedFields.add(field)) {
+                        log.info("Compaction drops employee field '{}', add it to access-governance.compaction.employee-fields to keep it", field);
+                    }
+                });
+                object.retain(employeeFields);
+            }
+            if (object.get(MEMBERSHIPS_FIELD) instanceof ArrayNode memberships) {
+                memberships.forEach(membership -> {
+                    if (membership instanceof ObjectNode membershipObject) {
+                        membershipObject.retain(MEMBERSHIP_FIELDS);
+                    }
+                });
+            }
+            object.forEach(this::project);
+        } else if (node instanceof ArrayNode array) {
+            array.forEach(this::project);
+        }
+    }
+
+    // Stage 2: replace long employee lists with how many of them hold each group
+    private void aggregate(ObjectNode root) {
+        for (String field : aggregatedFields) {
+            if (root.get(field) instanceof ArrayNode employees && employees.size() > aggregateAbove) {
+                root.set(field, histogram(employees));
+            }
+        }
+    }
+
+    private ObjectNode histogram(ArrayNode employees) {
+        Map<String, Integer> holders = new HashMap<>();
+        Map<String, String> groupNames = new HashMap<>();
+        List<String> employeeIds = new ArrayList<>();
+        for (JsonNode employee : employees) {
+            employeeIds.add(employee.path("employeeId").asText());
+            for (JsonNode membership : employee.path(MEMBERSHIPS_FIELD)) {
+                String groupId = membership.isObject() ? membership.path("groupId").asText() : membership.asText();
+                holders.merge(groupId, 1, Integer::sum);
+                if (membership.hasNonNull("groupName")) {
+                    groupNames.putIfAbsent(groupId, membership.get("groupName").asText());
+                }
+            }
+        }
+        int count = employees.size();
+        ObjectNode summary = mapper.createObjectNode();
+        summary.put("aggregated", "holders = how many of the " + count + " employees currently hold the group");
+        summary.put("count", count);
+        ArrayNode frequencies = summary.putArray("groupFrequencies");
+        holders.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> {
+                    ObjectNode frequency = frequencies.addObject();
+                    frequency.put("groupId", entry.getKey());
+                    if (groupNames.containsKey(entry.getKey())) {
+                        frequency.put("groupName", groupNames.get(entry.getKey()));
+                    }
+                    frequency.put("holders", entry.getValue());
+                    frequency.put("share", Math.round(entry.getValue() * 100.0 / count) / 100.0);
+                });
+        ArrayNode sample = summary.putArray("sampleEmployeeIds");
+        employeeIds.stream().limit(sampleSize).forEach(sample::add);
+        return summary;
+    }
+
+    // Stage 3: halve the longest arrays until the serialized result fits; histograms are sorted, so the rarest groups go first
+    private String fitToBudget(JsonNode root) throws JsonProcessingException {
+        String json = mapper.writeValueAsString(root);
+        if (TokenEstimator.estimate(json) <= maxTokens) {
+            return json;
+        }
+        int limit = longestArray(root);
+        while (limit > 0 && TokenEstimator.estimate(json) > maxTokens) {
+            limit /= 2;
+            JsonNode trimmed = root.deepCopy();
+            trimArrays(trimmed, limit, false);
+            if (trimmed instanceof ObjectNode object) {
+                object.put("truncated", "lists cut to " + limit + " entries to fit the token budget");
+            }
+            json = mapper.writeValueAsString(trimmed);
+        }
+        return TokenEstimator.estimate(json) <= maxTokens ? json : truncateText(json);
+    }
+
+    private static int longestArray(JsonNode node) {
+        int longest = node.isArray() ? node.size() : 0;
+        for (JsonNode child : node) {
+            longest = Math.max(longest, longestArray(child));
+        }
+        return longest;
+    }
+
+    // Memberships of an employee that is not a list entry (the subject, its line manager) are what the answer is about
+    private static void trimArrays(JsonNode node, int limit, boolean listed) {
+        if (node instanceof ArrayNode array) {
+            while (array.size() > limit) {
+                array.remove(array.size() - 1);
+            }
+            array.forEach(element -> trimArrays(element, limit, true));
+        } else if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!listed && MEMBERSHIPS_FIELD.equals(field.getKey())) {
+                    continue;
+                }
+                trimArrays(field.getValue(), limit, listed);
+            }
+        }
+    }
+
+    // Last resort for non-JSON or irreducible results: valid JSON that tells the model how much was dropped
+    private String truncateText(String text) throws JsonProcessingException {
+        int maxChars = maxTokens * 4;
+        if (text.length() <= maxChars) {
+            return text;
+        }
+        ObjectNode truncated = mapper.createObjectNode();
+        truncated.put("truncated", true);
+        truncated.put("omittedCharacters", text.length() - maxChars);
+        truncated.put("partialResult", text.substring(0, maxChars));
+        return mapper.writeValueAsString(truncated);
+    }
+}
@@ -0,0 +1,115 @@
+package com.hackathon.accessguardian.mcp.client.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shared state behind {@link MemoizingToolCallback}: which tools are safe to cache, a short-TTL
+ * cross-request result cache and the table of identical calls currently in flight.
+ */
+@Slf4j
+public class ToolResultMemoizer {
+
+    /**
+     * ToolContext key under which a request carries its own tool-result map, see {@link #newRequestMemo()}.
+     */
+    public static final String REQUEST_MEMO_KEY = "toolResultMemo";
+
+    private final Set<String> cacheableTools;
+    private final ResponseCache crossRequestCache;
+    private final Map<ResponseCacheKey, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final ObjectMapper canonicalMapper = new ObjectMapper().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    public ToolResultMemoizer(Set<String> cacheableTools, int maxEntries, Duration ttl) {
+        this.cacheableTools = Set.copyOf(cacheableTools);
+        this.crossRequestCache = ttl.isZero() ? ResponseCache.noop() : new InMemoryResponseCache(maxEntries, ttl);
+    }
+
+    public static Map<String, String> newRequestMemo() {
+        return new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Only read-only tools on the allowlist are memoized. Matches Spring AI's connection-prefixed names too.
+     */
+    public boolean isCacheable(String exposedToolName) {
+        return cacheableTools.stream()
+                .anyMatch(tool -> exposedToolName.equals(tool) || exposedToolName.endsWith("_" + tool));
+    }
+
+    /**
+     * Returns the cached result, joins an identical call that is already running, or runs the call.
+     * Only the first caller for a key hits the MCP server; everyone else waits for its result. If the leading
+     * request was cancelled, that cancellation is its own: a waiting caller runs the call itself instead.
+     */
+    public String call(String toolName, String canonicalArguments, Supplier<String> call) {
+        ResponseCacheKey key = new ResponseCacheKey(toolName, List.of(canonicalArguments), "", "");
+        while (true) {
+            String cached = crossRequestCache.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+            CompletableFuture<String> mine = new CompletableFuture<>();
+            CompletableFuture<String> running = inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                return lead(key, mine, call);
+            }
+            log.debug("Coalescing in-flight call to {} {}", toolName, canonicalArguments);
+            try {
+                return running.join();
+            } catch (CancellationException e) {
+                log.debug("Leading call to {} was cancelled, retrying for this request", toolName);
+                inFlight.remove(key, running);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+    }
+
+    private String lead(ResponseCacheKey key, CompletableFuture<String> mine, Supplier<String> call) {
+        try {
+            String result = call.get();
+            crossRequestCache.put(key, result);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Re-serializes tool arguments with sorted keys so {"a":1,"b":2} and {"b":2, "a":1} share an entry.
+     * Input that is not a JSON object is used as is.
+     */
+    public String canonicalize(String toolInput) {
+        try {
+            Object parsed = canonicalMapper.readValue(toolInput, Object.class);
+            return canonicalMapper.writeValueAsString(parsed);
+        } catch (JsonProcessingException e) {
+            return toolInput.trim();
+        }
+    }
+
+    public void invalidateAll() {
+        crossRequestCache.invalidateAll();
+    }
+
+    public ResponseCache.CacheStats stats() {
+        return crossRequestCache.stats();
+    }
+}